@@ -0,0 +1,130 @@
+#!/usr/bin/env bash
+#
+# Startup-time and first-request-latency benchmark for the production build.
+#
+# Compares three ways of launching the same build:
+#   fat      - the Spring Boot executable jar (target/*-exec.jar), no AOT, no CDS
+#   thin     - the thin jar with target/lib on its class path, no AOT, no CDS
+#   aot-cds  - the thin jar with the AOT initializers and the CDS archive from the training run
+#
+# Each mode is started RUNS times against a fresh in-memory H2 database. Per run it records the
+# "Started Application in ..." time reported by Spring, the wall time from launching the JVM until
+# that line appears, and the latency of the first HTTP request (no warm-up request before it).
+#
+# Usage: scripts/startup-benchmark.sh            (builds with -Pprod first)
+#        SKIP_BUILD=1 RUNS=10 scripts/startup-benchmark.sh
+#
+# Environment:
+#   RUNS             runs per mode (default 5)
+#   PORT             HTTP port used by the benchmarked instance (default 18181)
+#   FIRST_REQUEST    path of the first request (default /api/crypto/latest?limit=10)
+#   MODES            space-separated subset of "fat thin aot-cds"
+#   JAVA             java executable (default $JAVA_HOME/bin/java or java on PATH)
+#   SKIP_BUILD       set to 1 to reuse the artifacts already in target/
+#   RESULTS          CSV output file (default target/startup-benchmark.csv)
+
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+RUNS=${RUNS:-5}
+PORT=${PORT:-18181}
+FIRST_REQUEST=${FIRST_REQUEST:-/api/crypto/latest?limit=10}
+MODES=${MODES:-"fat thin aot-cds"}
+JAVA=${JAVA:-${JAVA_HOME:+$JAVA_HOME/bin/}java}
+RESULTS=${RESULTS:-target/startup-benchmark.csv}
+STARTUP_TIMEOUT_SECONDS=120
+
+NAME=BanksData-1.0-SNAPSHOT
+THIN_JAR=target/$NAME.jar
+FAT_JAR=target/$NAME-exec.jar
+CDS_ARCHIVE=target/$NAME.jsa
+
+if [[ "${SKIP_BUILD:-0}" != "1" ]]; then
+    echo "Building the prod profile (AOT + CDS training run)..."
+    mvn -B -q -Pprod package -DskipTests
+fi
+
+for artifact in "$THIN_JAR" "$FAT_JAR" "$CDS_ARCHIVE"; do
+    if [[ ! -f "$artifact" ]]; then
+        echo "Missing $artifact; run without SKIP_BUILD or build with: mvn -Pprod package" >&2
+        exit 1
+    fi
+done
+
+APP_ARGS=(
+    --spring.profiles.active=prod
+    --server.port="$PORT"
+    --spring.datasource.url=jdbc:h2:mem:startup-benchmark
+    --coinlore.polling.enabled=false
+)
+
+command_for() {
+    case "$1" in
+        fat)     echo "$JAVA -jar $FAT_JAR" ;;
+        thin)    echo "$JAVA -jar $THIN_JAR" ;;
+        aot-cds) echo "$JAVA -XX:SharedArchiveFile=$CDS_ARCHIVE -Xlog:cds=off -Dspring.aot.enabled=true -jar $THIN_JAR" ;;
+        *)       echo "Unknown mode: $1" >&2; exit 1 ;;
+    esac
+}
+
+now_ms() {
+    date +%s%3N
+}
+
+median() {
+    sort -n | awk '{ v[NR] = $1 } END { if (NR == 0) { print "-" } else if (NR % 2) { print v[(NR + 1) / 2] } else { printf "%.1f\n", (v[NR / 2] + v[NR / 2 + 1]) / 2 } }'
+}
+
+run_once() {
+    local mode=$1 log
+    log=$(mktemp)
+    local start
+    start=$(now_ms)
+    # shellcheck disable=SC2046
+    $(command_for "$mode") "${APP_ARGS[@]}" > "$log" 2>&1 &
+    local pid=$!
+
+    local deadline=$(( $(date +%s) + STARTUP_TIMEOUT_SECONDS ))
+    until grep -aq "Started Application in" "$log"; do
+        if ! kill -0 "$pid" 2>/dev/null || (( $(date +%s) > deadline )); then
+            echo "Instance ($mode) did not start, log: $log" >&2
+            kill "$pid" 2>/dev/null || true
+            exit 1
+        fi
+        sleep 0.05
+    done
+    local ready_ms=$(( $(now_ms) - start ))
+    local spring_ms
+    spring_ms=$(grep -a -o "Started Application in [0-9.]* seconds" "$log" | awk '{ printf "%d", $4 * 1000 }')
+
+    local first_ms
+    first_ms=$(curl -s -o /dev/null -w "%{time_total}" "http://localhost:$PORT$FIRST_REQUEST" | awk '{ printf "%.1f", $1 * 1000 }')
+
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    rm -f "$log"
+    echo "$mode,$spring_ms,$ready_ms,$first_ms"
+}
+
+mkdir -p "$(dirname "$RESULTS")"
+echo "mode,spring_started_ms,wall_ready_ms,first_request_ms" > "$RESULTS"
+for mode in $MODES; do
+    for run in $(seq 1 "$RUNS"); do
+        line=$(run_once "$mode")
+        echo "$line" >> "$RESULTS"
+        echo "  $mode run $run/$RUNS: $line"
+    done
+done
+
+echo
+printf "%-8s %20s %16s %18s\n" mode "spring started (ms)" "wall ready (ms)" "first request (ms)"
+for mode in $MODES; do
+    rows=$(grep "^$mode," "$RESULTS")
+    printf "%-8s %20s %16s %18s\n" "$mode" \
+        "$(cut -d, -f2 <<< "$rows" | median)" \
+        "$(cut -d, -f3 <<< "$rows" | median)" \
+        "$(cut -d, -f4 <<< "$rows" | median)"
+done
+echo
+echo "Raw results: $RESULTS"
@@ -0,0 +1,165 @@
+package org.example.benchmark;
+
+import org.example.entity.Cryptocurrency;
+import org.example.entity.Movie;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Deterministic generators for benchmark inputs shaped like the real upstream data: listing pages
+ * of the movie site, CoinLore {@code /tickers/} payloads and the entity tables the exports read.
+ */
+public final class SyntheticData {
+
+    private static final String[] GENRES = {
+            "Драма", "Комедія", "Бойовик", "Трилер", "Фантастика", "Жахи", "Мелодрама", "Детектив", "Пригоди", "Мультфільм"
+    };
+    private static final String[] WORDS = {
+            "Темний", "лицар", "Зоряні", "війни", "Матриця", "Dark", "Knight", "Return", "Повернення", "короля",
+            "Володар", "кілець", "Шлях", "додому", "Love", "Story", "Останній", "герой", "Нова", "надія"
+    };
+
+    private SyntheticData() {
+    }
+
+    /**
+     * One listing page with {@code items} movie cards plus the surrounding layout noise the real site has.
+     */
+    public static String listingPage(int page, int items) {
+        Random random = new Random(page);
+        StringBuilder html = new StringBuilder(items * 600 + 4096);
+        html.append("<!DOCTYPE html><html lang=\"uk\"><head><meta charset=\"utf-8\"><title>Фільми — сторінка ")
+                .append(page).append("</title><script>window.dataLayer=[];</script>")
+                .append("<link rel=\"stylesheet\" href=\"/css/main.css\"></head><body>")
+                .append("<header><nav><ul>");
+        for (String genre : GENRES) {
+            html.append("<li><a href=\"/genre/").append(genre.toLowerCase(Locale.ROOT)).append("/\">").append(genre).append("</a></li>");
+        }
+        html.append("</ul></nav></header><main><div class=\"list\">");
+        for (int i = 0; i < items; i++) {
+            int id = (page - 1) * items + i;
+            html.append("<div class=\"postItem\"><div class=\"postItem-img\"><a href=\"/film/").append(id)
+                    .append("/\"><img src=\"/posters/").append(id).append(".jpg\" alt=\"\"></a></div>")
+                    .append("<div class=\"postitem-title\"><a href=\"/film/").append(id).append("/\">")
+                    .append(title(random, id)).append("</a></div>")
+                    .append("<div class=\"postItem-title\"><span class=\"misc\">")
+                    .append(infoLine(random)).append("</span></div>")
+                    .append("<div class=\"postItem-rating\"><span>").append(random.nextInt(100) / 10.0).append("</span></div></div>");
+        }
+        html.append("</div><div class=\"pagination\"><a href=\"/page/").append(page + 1)
+                .append("/\">Далі</a></div></main><footer>© 2025</footer></body></html>");
+        return html.toString();
+    }
+
+    public static String[] infoLines(int count) {
+        Random random = new Random(count);
+        String[] lines = new String[count];
+        for (int i = 0; i < count; i++) {
+            lines[i] = infoLine(random);
+        }
+        return lines;
+    }
+
+    /**
+     * A CoinLore {@code /tickers/} response body with {@code tickers} entries, numbers quoted the way the API sends them.
+     */
+    public static byte[] coinLoreJson(int tickers) {
+        Random random = new Random(tickers);
+        StringBuilder json = new StringBuilder(tickers * 420 + 64);
+        json.append("{\"data\":[");
+        for (int i = 0; i < tickers; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            double price = 50_000.0 / (i + 1) * (0.5 + random.nextDouble());
+            json.append("{\"id\":\"").append(90 + i)
+                    .append("\",\"symbol\":\"C").append(i)
+                    .append("\",\"name\":\"Coin ").append(i)
+                    .append("\",\"nameid\":\"coin-").append(i)
+                    .append("\",\"rank\":").append(i + 1)
+                    .append(",\"price_usd\":\"").append(decimal(price, 4))
+                    .append("\",\"percent_change_24h\":\"").append(decimal(random.nextGaussian() * 5, 2))
+                    .append("\",\"percent_change_1h\":\"").append(decimal(random.nextGaussian(), 2))
+                    .append("\",\"percent_change_7d\":\"").append(decimal(random.nextGaussian() * 12, 2))
+                    .append("\",\"price_btc\":\"").append(decimal(price / 50_000.0, 8))
+                    .append("\",\"market_cap_usd\":\"").append(decimal(price * 1_000_000, 2))
+                    .append("\",\"volume24\":").append(decimal(random.nextDouble() * 1e9, 6))
+                    .append(",\"volume24a\":").append(decimal(random.nextDouble() * 1e9, 6))
+                    .append(",\"csupply\":\"").append(decimal(1_000_000 + random.nextInt(1_000_000_000), 2))
+                    .append("\",\"tsupply\":\"").append(2_000_000 + random.nextInt(1_000_000_000))
+                    .append("\",\"msupply\":\"").append(i % 3 == 0 ? "21000000" : "")
+                    .append("\"}");
+        }
+        json.append("],\"info\":{\"coins_num\":").append(tickers).append(",\"time\":1700000000}}");
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    public static List<Cryptocurrency> cryptocurrencies(int count) {
+        Random random = new Random(count);
+        List<Cryptocurrency> cryptos = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            double price = 50_000.0 / (i + 1) * (0.5 + random.nextDouble());
+            Cryptocurrency crypto = new Cryptocurrency();
+            crypto.setId(String.valueOf(90 + i));
+            crypto.setSymbol("C" + i);
+            crypto.setName("Coin " + i);
+            crypto.setNameid("coin-" + i);
+            crypto.setRank(i + 1);
+            crypto.setPrice_usd(new BigDecimal(decimal(price, 4)));
+            crypto.setPercent_change_1h(random.nextGaussian());
+            crypto.setPercent_change_24h(random.nextGaussian() * 5);
+            crypto.setPercent_change_7d(random.nextGaussian() * 12);
+            crypto.setMarket_cap_usd(new BigDecimal(decimal(price * 1_000_000, 2)));
+            crypto.setVolume24(new BigDecimal(decimal(random.nextDouble() * 1e9, 6)));
+            crypto.setVolume24a(new BigDecimal(decimal(random.nextDouble() * 1e9, 6)));
+            crypto.setCsupply(BigDecimal.valueOf(1_000_000 + random.nextInt(1_000_000_000)));
+            crypto.setTsupply(BigDecimal.valueOf(2_000_000 + random.nextInt(1_000_000_000)));
+            crypto.setMsupply(i % 3 == 0 ? BigDecimal.valueOf(21_000_000) : null);
+            cryptos.add(crypto);
+        }
+        return cryptos;
+    }
+
+    /**
+     * Movies in {@code /api/movies/load} order (year descending, then title).
+     */
+    public static List<Movie> movies(int count) {
+        Random random = new Random(count);
+        List<Movie> movies = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Movie movie = new Movie(title(random, i), 2025 - (int) ((long) i * 100 / count), genres(random));
+            movie.setId((long) i + 1);
+            movies.add(movie);
+        }
+        return movies;
+    }
+
+    private static String title(Random random, int id) {
+        return WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + id;
+    }
+
+    private static String infoLine(Random random) {
+        return (1950 + random.nextInt(76)) + ", " + genres(random);
+    }
+
+    private static String genres(Random random) {
+        int count = 1 + random.nextInt(3);
+        StringBuilder genres = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                genres.append(", ");
+            }
+            genres.append(GENRES[random.nextInt(GENRES.length)]);
+        }
+        return genres.toString();
+    }
+
+    private static String decimal(double value, int scale) {
+        return String.format(Locale.ROOT, "%." + scale + "f", value);
+    }
+}
@@ -0,0 +1,77 @@
+package org.example.service;
+
+import org.example.benchmark.SyntheticData;
+import org.example.entity.Cryptocurrency;
+import org.example.entity.Movie;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The two {@link ExportService} workbook builders over in-memory tables of increasing size,
+ * writing into a byte-counting sink so only workbook generation is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class ExportBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int rows;
+
+    private ExportService exportService;
+    private List<Cryptocurrency> cryptos;
+    private List<Movie> movies;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        exportService = new ExportService();
+        cryptos = SyntheticData.cryptocurrencies(rows);
+        movies = SyntheticData.movies(rows);
+    }
+
+    @Benchmark
+    public long cryptoWorkbook() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        exportService.writeCryptoWorkbook(cryptos.iterator(), out);
+        return out.count;
+    }
+
+    @Benchmark
+    public long moviesWorkbook() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        exportService.writeMoviesWorkbook(movies, out);
+        return out.count;
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
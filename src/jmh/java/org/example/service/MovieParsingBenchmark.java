@@ -0,0 +1,79 @@
+package org.example.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.benchmark.SyntheticData;
+import org.example.entity.dto.ScrapedMovieDto;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Listing-page parsing in {@link MovieScraperService}: the whole page through the DOM and the
+ * streaming extractors, extraction from an already parsed document, and the info-line year/genre
+ * parsing alone. That both extractors return the same movies is checked by
+ * {@code MovieExtractionEquivalenceTest}, not here.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MovieParsingBenchmark {
+
+    @Param({"36", "360"})
+    public int itemsPerPage;
+
+    private MovieScraperService scraper;
+    private String html;
+    private Document document;
+    private String[] infoLines;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        scraper = new MovieScraperService();
+        ReflectionTestUtils.setField(scraper, "pipelineMetrics", new PipelineMetrics(new SimpleMeterRegistry()));
+        html = SyntheticData.listingPage(1, itemsPerPage);
+        document = Jsoup.parse(html);
+        infoLines = SyntheticData.infoLines(itemsPerPage);
+    }
+
+    @Benchmark
+    public List<ScrapedMovieDto> parseHtmlPage() {
+        return scraper.parsePage(Jsoup.parse(html), 1);
+    }
+
+    @Benchmark
+    public List<ScrapedMovieDto> streamHtmlPage() {
+        return scraper.streamPage(html, "", 1);
+    }
+
+    @Benchmark
+    public List<ScrapedMovieDto> extractFromDocument() {
+        return scraper.parsePage(document, 1);
+    }
+
+    @Benchmark
+    public void parseInfoLines(Blackhole blackhole) {
+        for (String line : infoLines) {
+            blackhole.consume(scraper.parseYear(line));
+            blackhole.consume(scraper.parseGenres(line));
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.benchmark.SyntheticData;
+import org.example.entity.Cryptocurrency;
+import org.example.entity.dto.CoinLoreTickerDto;
+import org.example.entity.dto.CoinLoreTickersResponseDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CoinLore payload handling: JSON decoding into {@link CoinLoreTickerDto}s, the DTO-to-entity
+ * mapping in {@link CoinLoreApiService}, and both together.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TickerMappingBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    public int tickers;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private byte[] payload;
+    private List<CoinLoreTickerDto> dtos;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        payload = SyntheticData.coinLoreJson(tickers);
+        dtos = decodeJson();
+    }
+
+    @Benchmark
+    public List<CoinLoreTickerDto> decodeJson() throws IOException {
+        return objectMapper.readValue(payload, CoinLoreTickersResponseDto.class).getData();
+    }
+
+    @Benchmark
+    public List<Cryptocurrency> mapToEntities() {
+        return map(dtos);
+    }
+
+    @Benchmark
+    public List<Cryptocurrency> decodeAndMap() throws IOException {
+        return map(decodeJson());
+    }
+
+    private static List<Cryptocurrency> map(List<CoinLoreTickerDto> source) {
+        List<Cryptocurrency> entities = new ArrayList<>(source.size());
+        for (CoinLoreTickerDto dto : source) {
+            entities.add(CoinLoreApiService.mapDtoToEntity(dto));
+        }
+        return entities;
+    }
+}
@@ -1,14 +1,19 @@
 package org.example.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
 @Configuration
+@EnableScheduling
 public class AppConfig {
 
-    @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    @Bean(destroyMethod = "dispose")
+    public Scheduler persistenceScheduler(@Value("${coinlore.persistence.threads:4}") int threads,
+                                          @Value("${coinlore.persistence.queue-size:1000}") int queueSize) {
+        return Schedulers.newBoundedElastic(threads, queueSize, "crypto-db");
     }
 }
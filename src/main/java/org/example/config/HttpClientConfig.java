@@ -0,0 +1,76 @@
+package org.example.config;
+
+import io.netty.channel.ChannelOption;
+import io.netty.handler.codec.compression.Brotli;
+import org.example.http.ConnectionStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * One pooled Reactor Netty client behind every outbound call: the CoinLore WebClient and the
+ * scraper share its connections, timeouts and decompression. {@code responseTimeout} bounds each
+ * exchange; a per-connection read timeout would also fire on idle pooled connections.
+ */
+@Configuration
+public class HttpClientConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(HttpClientConfig.class);
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider outboundConnectionProvider(
+            @Value("${http.client.max-connections:50}") int maxConnections,
+            @Value("${http.client.pending-acquire-max:500}") int pendingAcquireMax,
+            @Value("${http.client.pending-acquire-timeout-ms:45000}") long pendingAcquireTimeoutMs,
+            @Value("${http.client.max-idle-ms:30000}") long maxIdleMs,
+            @Value("${http.client.max-life-ms:300000}") long maxLifeMs) {
+        return ConnectionProvider.builder("outbound")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMax)
+                .pendingAcquireTimeout(Duration.ofMillis(pendingAcquireTimeoutMs))
+                .maxIdleTime(Duration.ofMillis(maxIdleMs))
+                .maxLifeTime(Duration.ofMillis(maxLifeMs))
+                .evictInBackground(Duration.ofMillis(maxIdleMs))
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public HttpClient outboundHttpClient(ConnectionProvider outboundConnectionProvider,
+                                         ConnectionStats connectionStats,
+                                         @Value("${http.client.connect-timeout-ms:5000}") int connectTimeoutMs,
+                                         @Value("${http.client.response-timeout-ms:20000}") long responseTimeoutMs,
+                                         @Value("${http.client.compression:true}") boolean compression) {
+        HttpClient client = HttpClient.create(outboundConnectionProvider)
+                // h2 is negotiated over TLS via ALPN; plain http stays on HTTP/1.1 keep-alive
+                .protocol(HttpProtocol.H2, HttpProtocol.HTTP11)
+                .keepAlive(true)
+                .followRedirect(true)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .responseTimeout(Duration.ofMillis(responseTimeoutMs))
+                .observe(connectionStats)
+                .metrics(true, uri -> uri.contains("?") ? uri.substring(0, uri.indexOf('?')) : uri)
+                .compress(compression);
+        if (compression && Brotli.isAvailable()) {
+            client = client.headers(headers -> headers.set(HttpHeaders.ACCEPT_ENCODING, "br, gzip"));
+        }
+        log.info("Спільний HTTP-клієнт: стиснення={}, brotli={}.", compression, compression && Brotli.isAvailable());
+        return client;
+    }
+
+    @Bean
+    public ClientHttpConnector clientHttpConnector(HttpClient outboundHttpClient) {
+        return new ReactorClientHttpConnector(outboundHttpClient);
+    }
+}
@@ -1,50 +1,299 @@
 package org.example.controller;
 
 import org.example.entity.Cryptocurrency;
+import org.example.entity.PriceSnapshot;
+import org.example.entity.dto.JobStatusDto;
+import org.example.entity.dto.KeysetPageDto;
+import org.example.entity.dto.PriceBucketView;
+import org.example.entity.dto.TickerIngestionSummaryDto;
+import org.example.entity.dto.TickerPollingStatsDto;
+import org.example.entity.dto.TickerQueryDto;
+import org.example.http.CircuitOpenException;
 import org.example.service.CoinLoreApiService;
+import org.example.service.CryptoQueryService;
+import org.example.service.DataVersionService;
+import org.example.service.DataVersionService.Dataset;
+import org.example.service.ExportCache;
+import org.example.service.ExportJobService;
+import org.example.service.ExportJobService.ExportFormat;
 import org.example.service.ExportService;
+import org.example.service.JobService;
+import org.example.service.PriceHistoryService;
+import org.example.service.TickerSnapshot;
+import org.example.service.TickerStreamService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.reactive.function.client.WebClientException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/api/crypto")
 public class CryptoController {
 
+    private static final Logger log = LoggerFactory.getLogger(CryptoController.class);
+    private static final int MAX_PAGE_SIZE = 1000;
+
     @Autowired
     private CoinLoreApiService coinLoreApiService;
 
     @Autowired
     private ExportService exportService;
 
+    @Autowired
+    private ExportJobService exportJobService;
+
+    @Autowired
+    private PriceHistoryService priceHistoryService;
+
+    @Autowired
+    private CryptoQueryService cryptoQueryService;
+
+    @Autowired
+    private DataVersionService dataVersionService;
+
+    @Autowired
+    private ExportCache exportCache;
+
+    @Autowired
+    private JobService jobService;
+
+    @Autowired
+    private TickerSnapshot tickerSnapshot;
+
+    @Autowired
+    private TickerStreamService tickerStreamService;
+
     @GetMapping("/fetch")
     public Mono<ResponseEntity<List<Cryptocurrency>>> fetchAndSave() {
         return coinLoreApiService.fetchAndSaveTickers()
                 .map(savedList -> ResponseEntity.ok(savedList))
                 .defaultIfEmpty(ResponseEntity.notFound().build())
                 .onErrorResume(e -> {
-                    System.err.println("Error fetching data: " + e.getMessage());
-                    return Mono.just(ResponseEntity.status(500).build());
+                    log.error("Помилка отримання тикерів: {}", e.getMessage());
+                    return Mono.just(ResponseEntity.status(upstreamErrorStatus(e)).build());
+                });
+    }
+
+    /**
+     * 503 while the CoinLore breaker is open, 502 when CoinLore failed or could not be reached, 500 otherwise.
+     */
+    static HttpStatus upstreamErrorStatus(Throwable error) {
+        Throwable cause = Exceptions.unwrap(error);
+        if (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof CircuitOpenException) {
+            return HttpStatus.SERVICE_UNAVAILABLE;
+        }
+        if (cause instanceof IOException || cause instanceof WebClientException) {
+            return HttpStatus.BAD_GATEWAY;
+        }
+        return HttpStatus.INTERNAL_SERVER_ERROR;
+    }
+
+    @PostMapping("/fetch/jobs")
+    public ResponseEntity<JobStatusDto> fetchAndSaveJob() {
+        return JobController.accepted(jobService.submitAsync("crypto-fetch", () -> coinLoreApiService.fetchAndSaveTickers().toFuture()));
+    }
+
+    @GetMapping("/fetch/all")
+    public Mono<ResponseEntity<TickerIngestionSummaryDto>> fetchAndSaveAll() {
+        return coinLoreApiService.ingestAllTickers()
+                .map(ResponseEntity::ok)
+                .onErrorResume(e -> {
+                    log.error("Помилка повного завантаження тикерів: {}", e.getMessage());
+                    return Mono.just(ResponseEntity.status(upstreamErrorStatus(e)).build());
                 });
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<KeysetPageDto<Cryptocurrency>> getTickersPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(cryptoQueryService.getTickersPage(cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/query")
+    public ResponseEntity<List<Cryptocurrency>> queryTickers(
+            @RequestParam(defaultValue = "rank") String sort,
+            @RequestParam(defaultValue = "asc") String order,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) BigDecimal minMarketCap,
+            @RequestParam(required = false) BigDecimal maxMarketCap,
+            @RequestParam(required = false) BigDecimal minVolume24,
+            @RequestParam(required = false) Double minChange24h,
+            @RequestParam(required = false) Double maxChange24h) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE || !(order.equalsIgnoreCase("asc") || order.equalsIgnoreCase("desc"))) {
+            return ResponseEntity.badRequest().build();
+        }
+        TickerQueryDto query = new TickerQueryDto(sort, order.equalsIgnoreCase("desc"), limit,
+                minMarketCap, maxMarketCap, minVolume24, minChange24h, maxChange24h);
+        try {
+            return ResponseEntity.ok(cryptoQueryService.query(query));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping(value = "/ndjson", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamTickersNdjson() {
+        StreamingResponseBody body = out -> exportService.writeCryptoNdjson(out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> streamTickerEvents(@RequestParam(defaultValue = "100") int limit) {
+        return tickerStreamService.stream(Math.max(1, limit));
+    }
+
+    @GetMapping("/latest")
+    public ResponseEntity<byte[]> getLatest(@RequestParam(defaultValue = "" + Integer.MAX_VALUE) int limit,
+                                            WebRequest webRequest) {
+        if (limit < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        return latestResponse(tickerSnapshot.latest(limit), webRequest);
+    }
+
+    @GetMapping("/latest/{symbol}")
+    public ResponseEntity<byte[]> getLatestBySymbol(@PathVariable String symbol, WebRequest webRequest) {
+        TickerSnapshot.Latest latest = tickerSnapshot.latest(symbol);
+        if (latest == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return latestResponse(latest, webRequest);
+    }
+
+    private ResponseEntity<byte[]> latestResponse(TickerSnapshot.Latest latest, WebRequest webRequest) {
+        String etag = "\"latest-" + Long.toString(dataVersionService.getEpoch(), 36) + "-" + latest.version() + "\"";
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .body(latest.json());
+    }
+
+    @GetMapping("/polling/stats")
+    public ResponseEntity<TickerPollingStatsDto> getPollingStats() {
+        return ResponseEntity.ok(coinLoreApiService.getPollingStats());
+    }
+
+    @GetMapping("/history/{symbol}")
+    public ResponseEntity<List<PriceSnapshot>> getHistory(
+            @PathVariable String symbol,
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(defaultValue = "1000") int limit) {
+        Instant rangeTo = to != null ? to : Instant.now();
+        Instant rangeFrom = from != null ? from : rangeTo.minus(Duration.ofDays(1));
+        if (rangeFrom.isAfter(rangeTo) || limit < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return priceHistoryService.getHistory(symbol, rangeFrom, rangeTo, limit)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/history/{symbol}/buckets")
+    public ResponseEntity<List<PriceBucketView>> getHistoryBuckets(
+            @PathVariable String symbol,
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(defaultValue = "PT1H") Duration bucket) {
+        Instant rangeTo = to != null ? to : Instant.now();
+        Instant rangeFrom = from != null ? from : rangeTo.minus(Duration.ofDays(30));
+        if (rangeFrom.isAfter(rangeTo) || bucket.toMillis() < 1000
+                || Duration.between(rangeFrom, rangeTo).dividedBy(bucket) > PriceHistoryService.MAX_BUCKETS) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return priceHistoryService.getBuckets(symbol, rangeFrom, rangeTo, bucket)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/export/jobs")
+    public ResponseEntity<JobStatusDto> exportJob(@RequestParam(defaultValue = "xlsx") String format) {
+        return ExportFormat.parse(format)
+                .map(f -> JobController.accepted(exportJobService.submit(Dataset.CRYPTO, f, null, null)))
+                .orElse(ResponseEntity.badRequest().build());
+    }
+
+    @GetMapping("/export/csv")
+    public ResponseEntity<StreamingResponseBody> exportToCsv(WebRequest webRequest) {
+        boolean gzip = GzipSupport.acceptsGzip(webRequest);
+        ExportCache.ExportKey key = dataVersionService.exportKey(Dataset.CRYPTO, gzip ? "csv.gz" : "csv", null, null);
+        if (webRequest.checkNotModified(key.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+
+        StreamingResponseBody body = exportService::writeCryptoCsv;
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=cryptocurrencies.csv")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .cacheControl(CacheControl.noCache())
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8));
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+            body = GzipSupport.gzip(body);
+        }
+        return response.body(body);
+    }
+
     @GetMapping("/export/excel")
-    public ResponseEntity<InputStreamResource> exportToExcel() throws IOException {
+    public ResponseEntity<StreamingResponseBody> exportToExcel(WebRequest webRequest) {
         String filename = "cryptocurrencies.xlsx";
-        InputStreamResource file = new InputStreamResource(exportService.generateExcelForCrypto());
+        ExportCache.ExportKey key = dataVersionService.exportKey(Dataset.CRYPTO, "xlsx", null, null);
+        if (webRequest.checkNotModified(key.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+
+        byte[] cached = exportCache.get(key);
+        StreamingResponseBody body = cached != null
+                ? out -> out.write(cached)
+                : out -> exportCache.writeThrough(key, out, exportService::writeExcelForCrypto);
 
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
+                .cacheControl(CacheControl.noCache())
                 .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
-                .body(file);
+                .body(body);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,40 @@
+package org.example.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Response-side gzip for streamed exports, negotiated from {@code Accept-Encoding}.
+ */
+final class GzipSupport {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private GzipSupport() {
+    }
+
+    static boolean acceptsGzip(WebRequest request) {
+        String header = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (header == null) {
+            return false;
+        }
+        for (String coding : header.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length < 2 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    static StreamingResponseBody gzip(StreamingResponseBody body) {
+        return out -> {
+            GZIPOutputStream gzip = new GZIPOutputStream(out, BUFFER_SIZE);
+            body.writeTo(gzip);
+            gzip.finish();
+        };
+    }
+}
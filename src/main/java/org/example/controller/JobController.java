@@ -0,0 +1,140 @@
+package org.example.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.example.entity.dto.JobStatusDto;
+import org.example.service.ExportJobService;
+import org.example.service.ExportJobService.SpooledFile;
+import org.example.service.JobService;
+import org.example.service.JobService.JobState;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+
+@RestController
+@RequestMapping("/api/jobs")
+public class JobController {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    @Autowired
+    private JobService jobService;
+
+    @Autowired
+    private ExportJobService exportJobService;
+
+    @GetMapping("/{id}")
+    public ResponseEntity<JobStatusDto> getStatus(@PathVariable String id) {
+        return jobService.getStatus(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/{id}/result")
+    public ResponseEntity<?> getResult(@PathVariable String id) {
+        JobStatusDto status = jobService.getStatus(id).orElse(null);
+        if (status == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (status.state() == JobState.RUNNING) {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(status);
+        }
+        if (status.state() == JobState.FAILED) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(status);
+        }
+        return ResponseEntity.ok(jobService.getResult(id).orElse(null));
+    }
+
+    /**
+     * Serves a spooled export from disk. Spring MVC answers {@code Range} requests for a resource body
+     * itself (206, multipart ranges, 416), so an interrupted download can be resumed; a stale
+     * {@code If-Range} gets the whole file instead. A plain full download is handed to Tomcat's
+     * sendfile when the connector supports it, so the file goes to the socket without passing
+     * through the JVM heap.
+     */
+    @GetMapping("/{id}/download")
+    public ResponseEntity<Resource> download(@PathVariable String id,
+                                                       HttpServletRequest request,
+                                                       WebRequest webRequest) {
+        SpooledFile file = exportJobService.getFile(id).orElse(null);
+        if (file == null) {
+            // still running or failed -> 409, finished but already cleaned up -> 410
+            return jobService.getStatus(id)
+                    .map(status -> ResponseEntity.status(status.state() == JobState.SUCCEEDED
+                            ? HttpStatus.GONE : HttpStatus.CONFLICT).<Resource>build())
+                    .orElse(ResponseEntity.notFound().build());
+        }
+
+        String etag = "\"export-" + id + "\"";
+        if (webRequest.checkNotModified(etag, file.createdAt().toEpochMilli())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + file.fileName())
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .eTag(etag)
+                .lastModified(file.createdAt())
+                .contentType(MediaType.parseMediaType(file.contentType()));
+
+        boolean ranged = request.getHeader(HttpHeaders.RANGE) != null;
+        if (ranged && ifRangeMatches(request, etag, file)) {
+            return response.body(new FileSystemResource(file.path()));
+        }
+        if ("GET".equals(request.getMethod()) && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.path().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, file.size());
+            return response.contentLength(file.size()).build();
+        }
+        if (!ranged) {
+            return response.body(new FileSystemResource(file.path()));
+        }
+        // Spring never splits an InputStreamResource into ranges, so the stale If-Range gets the whole file
+        try {
+            return response.contentLength(file.size()).body(new InputStreamResource(Files.newInputStream(file.path())));
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.GONE).build();
+        }
+    }
+
+    /**
+     * {@code If-Range} holds either our strong ETag or the Last-Modified date; anything else means the
+     * client's partial copy is of a different file.
+     */
+    private static boolean ifRangeMatches(HttpServletRequest request, String etag, SpooledFile file) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(etag);
+        }
+        try {
+            return request.getDateHeader(HttpHeaders.IF_RANGE) / 1000 == file.createdAt().getEpochSecond();
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    static ResponseEntity<JobStatusDto> accepted(JobStatusDto status) {
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/jobs/" + status.id()))
+                .body(status);
+    }
+}
@@ -1,16 +1,32 @@
 package org.example.controller;
 
 import org.example.entity.Movie;
+import org.example.entity.dto.JobStatusDto;
+import org.example.entity.dto.KeysetPageDto;
+import org.example.entity.dto.MovieCacheStatsDto;
+import org.example.entity.dto.MovieSearchResultDto;
+import org.example.entity.dto.MovieSuggestionDto;
+import org.example.service.DataVersionService;
+import org.example.service.DataVersionService.Dataset;
+import org.example.service.ExportCache;
+import org.example.service.ExportJobService;
+import org.example.service.ExportJobService.ExportFormat;
 import org.example.service.ExportService;
+import org.example.service.JobService;
+import org.example.service.MovieCache;
 import org.example.service.MovieScraperService;
+import org.example.service.TitleSearchIndex;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.Year;
 import java.util.List;
 
@@ -18,12 +34,35 @@ import java.util.List;
 @RequestMapping("/api/movies")
 public class MovieController {
 
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_SUGGESTIONS = 50;
+    private static final int MIN_YEAR = 1800;
+    private static final int DEFAULT_YEAR_FROM = 1990;
+
     @Autowired
     private MovieScraperService movieScraperService;
 
     @Autowired
     private ExportService exportService;
 
+    @Autowired
+    private ExportJobService exportJobService;
+
+    @Autowired
+    private MovieCache movieCache;
+
+    @Autowired
+    private DataVersionService dataVersionService;
+
+    @Autowired
+    private ExportCache exportCache;
+
+    @Autowired
+    private JobService jobService;
+
+    @Autowired
+    private TitleSearchIndex titleSearchIndex;
+
 
     @GetMapping("/scrape")
     public ResponseEntity<List<Movie>> scrapeMovies() {
@@ -31,15 +70,19 @@ public class MovieController {
         return ResponseEntity.ok(processedMovies);
     }
 
+    @PostMapping("/scrape/jobs")
+    public ResponseEntity<JobStatusDto> scrapeMoviesJob() {
+        return JobController.accepted(jobService.submit("movies-scrape", movieScraperService::scrapeAndSaveMovies));
+    }
+
 
     @GetMapping("/load")
     public ResponseEntity<List<Movie>> loadMovies(
             @RequestParam Integer yearFrom,
             @RequestParam Integer yearTo) {
 
-        int currentYear = Year.now().getValue();
-        int from = (yearFrom != null && yearFrom > 1800) ? yearFrom : 1990;
-        int to = (yearTo != null && yearTo <= currentYear) ? yearTo : currentYear;
+        int from = clampYearFrom(yearFrom);
+        int to = clampYearTo(yearTo);
 
         if (from > to) {
             return ResponseEntity.badRequest().body(null);
@@ -50,25 +93,174 @@ public class MovieController {
     }
 
 
+    @GetMapping("/page")
+    public ResponseEntity<KeysetPageDto<Movie>> loadMoviesPage(
+            @RequestParam Integer yearFrom,
+            @RequestParam Integer yearTo,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit) {
+
+        int from = clampYearFrom(yearFrom);
+        int to = clampYearTo(yearTo);
+
+        if (from > to || limit < 1 || limit > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        try {
+            return ResponseEntity.ok(movieScraperService.getMoviesPage(from, to, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+
+    @GetMapping(value = "/ndjson", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamMovies(
+            @RequestParam Integer yearFrom,
+            @RequestParam Integer yearTo) {
+
+        int from = clampYearFrom(yearFrom);
+        int to = clampYearTo(yearTo);
+
+        if (from > to) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        StreamingResponseBody body = out -> exportService.writeMoviesNdjson(from, to, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
+
+    @GetMapping("/search")
+    public ResponseEntity<MovieSearchResultDto> searchMovies(
+            @RequestParam("genre") List<String> genres,
+            @RequestParam(defaultValue = "and") String mode,
+            @RequestParam(required = false) Integer yearFrom,
+            @RequestParam(required = false) Integer yearTo,
+            @RequestParam(defaultValue = "100") int limit) {
+
+        int from = clampYearFrom(yearFrom);
+        int to = clampYearTo(yearTo);
+        boolean matchAll = "and".equalsIgnoreCase(mode);
+
+        if (from > to || limit < 0 || limit > MAX_PAGE_SIZE || (!matchAll && !"or".equalsIgnoreCase(mode))) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return ResponseEntity.ok(movieCache.search(genres, matchAll, from, to, limit));
+    }
+
+
+    @GetMapping("/suggest")
+    public ResponseEntity<List<MovieSuggestionDto>> suggestMovies(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(titleSearchIndex.suggest(q, limit));
+    }
+
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<MovieCacheStatsDto> getCacheStats() {
+        return ResponseEntity.ok(movieCache.getStats());
+    }
+
+
+    @PostMapping("/export/jobs")
+    public ResponseEntity<JobStatusDto> exportJob(
+            @RequestParam(defaultValue = "xlsx") String format,
+            @RequestParam(required = false) Integer yearFrom,
+            @RequestParam(required = false) Integer yearTo) {
+
+        int from = clampYearFrom(yearFrom);
+        int to = clampYearTo(yearTo);
+
+        ExportFormat exportFormat = ExportFormat.parse(format).orElse(null);
+        if (exportFormat == null || from > to) {
+            return ResponseEntity.badRequest().build();
+        }
+        return JobController.accepted(exportJobService.submit(Dataset.MOVIES, exportFormat, from, to));
+    }
+
+    @GetMapping("/export/csv")
+    public ResponseEntity<StreamingResponseBody> exportMoviesToCsv(
+            @RequestParam(required = false) Integer yearFrom,
+            @RequestParam(required = false) Integer yearTo,
+            WebRequest webRequest) {
+
+        int from = clampYearFrom(yearFrom);
+        int to = clampYearTo(yearTo);
+
+        if (from > to) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        boolean gzip = GzipSupport.acceptsGzip(webRequest);
+        ExportCache.ExportKey key = dataVersionService.exportKey(Dataset.MOVIES, gzip ? "csv.gz" : "csv", from, to);
+        if (webRequest.checkNotModified(key.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+
+        StreamingResponseBody body = out -> exportService.writeMoviesCsv(from, to, out);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=movies_" + from + "_" + to + ".csv")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .cacheControl(CacheControl.noCache())
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8));
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+            body = GzipSupport.gzip(body);
+        }
+        return response.body(body);
+    }
+
+
     @GetMapping("/export/xlsx")
-    public ResponseEntity<InputStreamResource> exportMoviesToXlsx(
+    public ResponseEntity<StreamingResponseBody> exportMoviesToXlsx(
             @RequestParam Integer yearFrom,
-            @RequestParam Integer yearTo) throws IOException {
+            @RequestParam Integer yearTo,
+            WebRequest webRequest) {
         String filename = "movies.xlsx";
 
-        int currentYear = Year.now().getValue();
-        int from = (yearFrom != null && yearFrom > 1800) ? yearFrom : 1990;
-        int to = (yearTo != null && yearTo <= currentYear) ? yearTo : currentYear;
+        int from = clampYearFrom(yearFrom);
+        int to = clampYearTo(yearTo);
 
         if (from > to) {
             return ResponseEntity.badRequest().build();
         }
 
-        InputStreamResource file = new InputStreamResource(exportService.generateMoviesExcel(yearFrom, yearTo));
+        ExportCache.ExportKey key = dataVersionService.exportKey(Dataset.MOVIES, "xlsx", from, to);
+        if (webRequest.checkNotModified(key.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+
+        byte[] cached = exportCache.get(key);
+        StreamingResponseBody body = cached != null
+                ? out -> out.write(cached)
+                : out -> exportCache.writeThrough(key, out, target -> exportService.writeMoviesExcel(from, to, target));
 
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
+                .cacheControl(CacheControl.noCache())
                 .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
-                .body(file);
+                .body(body);
+    }
+
+    /**
+     * Year bounds shared by every movie endpoint: a missing or pre-{@value #MIN_YEAR} start falls back to
+     * {@value #DEFAULT_YEAR_FROM}, a missing or future end to the current year.
+     */
+    private static int clampYearFrom(Integer yearFrom) {
+        return (yearFrom != null && yearFrom > MIN_YEAR) ? yearFrom : DEFAULT_YEAR_FROM;
+    }
+
+    private static int clampYearTo(Integer yearTo) {
+        int currentYear = Year.now().getValue();
+        return (yearTo != null && yearTo <= currentYear) ? yearTo : currentYear;
     }
-}
\ No newline at end of file
+}
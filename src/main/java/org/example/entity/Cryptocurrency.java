@@ -3,6 +3,8 @@ package org.example.entity;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -10,6 +12,11 @@ import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_cryptocurrency_rank", columnList = "rank"),
+        @Index(name = "idx_cryptocurrency_market_cap", columnList = "market_cap_usd"),
+        @Index(name = "idx_cryptocurrency_change_24h", columnList = "percent_change_24h")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -26,9 +33,9 @@ public class Cryptocurrency {
     @Column(precision = 19, scale = 4)
     private BigDecimal price_usd;
 
-    private String percent_change_24h;
-    private String percent_change_1h;
-    private String percent_change_7d;
+    private Double percent_change_24h;
+    private Double percent_change_1h;
+    private Double percent_change_7d;
 
     @Column(precision = 19, scale = 2)
     private BigDecimal market_cap_usd;
@@ -39,8 +46,13 @@ public class Cryptocurrency {
     @Column(precision = 19, scale = 4)
     private BigDecimal volume24a;
 
-    private String csupply;
-    private String tsupply;
-    private String msupply;
+    @Column(precision = 38, scale = 4)
+    private BigDecimal csupply;
+
+    @Column(precision = 38, scale = 4)
+    private BigDecimal tsupply;
+
+    @Column(precision = 38, scale = 4)
+    private BigDecimal msupply;
 
 }
\ No newline at end of file
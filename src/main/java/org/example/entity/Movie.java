@@ -8,11 +8,15 @@ import lombok.NoArgsConstructor;
 @Entity
 @Data
 @NoArgsConstructor
-@Table(name = "movies")
+@Table(name = "movies", indexes = {
+        @Index(name = "ux_movies_title_year", columnList = "title, releaseYear", unique = true),
+        @Index(name = "idx_movies_year_title_id", columnList = "releaseYear, title, id")
+})
 public class Movie {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "movies_seq")
+    @SequenceGenerator(name = "movies_seq", sequenceName = "movies_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
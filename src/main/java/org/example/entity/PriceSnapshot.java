@@ -0,0 +1,39 @@
+package org.example.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "price_snapshots", indexes = {
+        @Index(name = "idx_price_snapshots_coin_time", columnList = "coinId, capturedAt")
+})
+public class PriceSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "price_snapshots_seq")
+    @SequenceGenerator(name = "price_snapshots_seq", sequenceName = "price_snapshots_seq", allocationSize = 100)
+    private Long id;
+
+    @Column(nullable = false, length = 16)
+    private String coinId;
+
+    @Column(nullable = false)
+    private long capturedAt;
+
+    private Double priceUsd;
+    private Double marketCapUsd;
+    private Double volume24;
+    private Integer rank;
+
+    public PriceSnapshot(String coinId, long capturedAt, Double priceUsd, Double marketCapUsd, Double volume24, Integer rank) {
+        this.coinId = coinId;
+        this.capturedAt = capturedAt;
+        this.priceUsd = priceUsd;
+        this.marketCapUsd = marketCapUsd;
+        this.volume24 = volume24;
+        this.rank = rank;
+    }
+}
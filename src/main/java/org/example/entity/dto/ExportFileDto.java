@@ -0,0 +1,6 @@
+package org.example.entity.dto;
+
+import java.time.Instant;
+
+public record ExportFileDto(String fileName, String contentType, long size, Instant expiresAt, String downloadUrl) {
+}
@@ -0,0 +1,8 @@
+package org.example.entity.dto;
+
+import org.example.service.JobService.JobState;
+
+import java.time.Instant;
+
+public record JobStatusDto(String id, String type, JobState state, Instant createdAt, Instant finishedAt, String error) {
+}
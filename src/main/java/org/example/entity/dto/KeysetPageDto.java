@@ -0,0 +1,6 @@
+package org.example.entity.dto;
+
+import java.util.List;
+
+public record KeysetPageDto<T>(List<T> items, String nextCursor) {
+}
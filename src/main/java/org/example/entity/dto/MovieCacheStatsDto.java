@@ -0,0 +1,7 @@
+package org.example.entity.dto;
+
+import java.time.Instant;
+
+public record MovieCacheStatsDto(long hits, long misses, double hitRate, int size, int genres,
+                                 long rebuilds, long lastRebuildMillis, Instant lastRebuildAt) {
+}
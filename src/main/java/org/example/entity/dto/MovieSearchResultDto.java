@@ -0,0 +1,9 @@
+package org.example.entity.dto;
+
+import org.example.entity.Movie;
+
+import java.util.List;
+import java.util.Map;
+
+public record MovieSearchResultDto(int total, List<Movie> movies, Map<String, Integer> genreCounts) {
+}
@@ -0,0 +1,4 @@
+package org.example.entity.dto;
+
+public record MovieSuggestionDto(Long id, String title, Integer releaseYear, double score) {
+}
@@ -0,0 +1,21 @@
+package org.example.entity.dto;
+
+public interface PriceBucketView {
+    Long getBucketStart();
+
+    Double getMinPrice();
+
+    Double getMaxPrice();
+
+    Double getAvgPrice();
+
+    Double getLastPrice();
+
+    Double getLastMarketCapUsd();
+
+    Double getLastVolume24();
+
+    Integer getLastRank();
+
+    Long getSamples();
+}
@@ -0,0 +1,4 @@
+package org.example.entity.dto;
+
+public record ScrapedMovieDto(String title, Integer releaseYear, String genres) {
+}
@@ -0,0 +1,4 @@
+package org.example.entity.dto;
+
+public record TickerIngestionSummaryDto(int pages, long tickers, long elapsedMillis) {
+}
@@ -0,0 +1,6 @@
+package org.example.entity.dto;
+
+import java.time.Instant;
+
+public record TickerPollingStatsDto(long polls, long rowsWritten, long rowsSkipped, Instant lastPollAt) {
+}
@@ -0,0 +1,8 @@
+package org.example.entity.dto;
+
+import java.math.BigDecimal;
+
+public record TickerQueryDto(String sort, boolean descending, int limit,
+                             BigDecimal minMarketCap, BigDecimal maxMarketCap, BigDecimal minVolume24,
+                             Double minChange24h, Double maxChange24h) {
+}
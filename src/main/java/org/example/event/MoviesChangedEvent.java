@@ -0,0 +1,13 @@
+package org.example.event;
+
+import org.example.entity.Movie;
+
+import java.util.List;
+
+/**
+ * Published by the scraper inside its transaction with only the inserted and updated movies; a wave
+ * that changes nothing publishes no event. Listeners interested in committed data should use
+ * {@code @TransactionalEventListener}.
+ */
+public record MoviesChangedEvent(List<Movie> movies) {
+}
@@ -0,0 +1,11 @@
+package org.example.event;
+
+import org.example.entity.Cryptocurrency;
+
+import java.util.List;
+
+/**
+ * Published after ticker rows have been written; {@code tickers} holds only the rows of that write.
+ */
+public record TickersChangedEvent(List<Cryptocurrency> tickers) {
+}
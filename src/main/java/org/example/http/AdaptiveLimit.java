@@ -0,0 +1,133 @@
+package org.example.http;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * AIMD concurrency limit for one host. Each success below the latency tolerance grows the limit by
+ * {@code 1/limit} (about +1 per round trip); throttling halves it and latency above
+ * {@code tolerance × baseline} trims it by 10%, at most once per baseline round trip so a burst of
+ * errors from requests that were already in flight counts as one congestion signal.
+ * Waiters are queued as futures so blocking and reactive callers share the same permits.
+ */
+final class AdaptiveLimit {
+
+    enum Signal {
+        SUCCESS, OVERLOAD, IGNORE
+    }
+
+    private static final long MIN_DECREASE_INTERVAL_NANOS = 100_000_000L;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final ArrayDeque<CompletableFuture<Permit>> waiters = new ArrayDeque<>();
+
+    private double limit;
+    private int inFlight;
+    private double baselineNanos = Double.NaN;
+    private long lastDecreaseAt;
+
+    AdaptiveLimit(int initialLimit, int minLimit, int maxLimit, double tolerance) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.tolerance = tolerance;
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+    }
+
+    synchronized CompletableFuture<Permit> acquire() {
+        if (waiters.isEmpty() && inFlight < (int) limit) {
+            inFlight++;
+            return CompletableFuture.completedFuture(new Permit());
+        }
+        CompletableFuture<Permit> waiter = new CompletableFuture<>();
+        waiters.add(waiter);
+        return waiter;
+    }
+
+    void release(Permit permit) {
+        if (!permit.released.compareAndSet(false, true)) {
+            return;
+        }
+        List<CompletableFuture<Permit>> granted;
+        synchronized (this) {
+            inFlight--;
+            adjust(permit.signal, System.nanoTime() - permit.startedAt);
+            granted = grantWaiters();
+        }
+        handOver(granted);
+    }
+
+    synchronized int limit() {
+        return (int) limit;
+    }
+
+    synchronized int inFlight() {
+        return inFlight;
+    }
+
+    private void adjust(Signal signal, long latencyNanos) {
+        long now = System.nanoTime();
+        if (signal == Signal.OVERLOAD) {
+            decrease(now, 0.5);
+        } else if (signal == Signal.SUCCESS) {
+            if (Double.isNaN(baselineNanos) || latencyNanos < baselineNanos) {
+                baselineNanos = latencyNanos;
+            } else {
+                // let the baseline drift up slowly so a permanently slower upstream is not punished forever
+                baselineNanos += (latencyNanos - baselineNanos) * 0.01;
+            }
+            if (latencyNanos > baselineNanos * tolerance) {
+                decrease(now, 0.9);
+            } else {
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+        }
+    }
+
+    private void decrease(long now, double factor) {
+        long interval = Double.isNaN(baselineNanos) ? MIN_DECREASE_INTERVAL_NANOS
+                : Math.max(MIN_DECREASE_INTERVAL_NANOS, (long) baselineNanos);
+        if (now - lastDecreaseAt >= interval) {
+            limit = Math.max(minLimit, limit * factor);
+            lastDecreaseAt = now;
+        }
+    }
+
+    private List<CompletableFuture<Permit>> grantWaiters() {
+        List<CompletableFuture<Permit>> granted = new ArrayList<>();
+        while (inFlight < (int) limit && !waiters.isEmpty()) {
+            CompletableFuture<Permit> waiter = waiters.poll();
+            if (!waiter.isDone()) {
+                inFlight++;
+                granted.add(waiter);
+            }
+        }
+        return granted;
+    }
+
+    private void handOver(List<CompletableFuture<Permit>> granted) {
+        // complete outside the lock: the waiter's continuation may start the next request inline
+        for (CompletableFuture<Permit> waiter : granted) {
+            Permit permit = new Permit();
+            if (!waiter.complete(permit)) {
+                // cancelled between being picked and being completed
+                permit.signal = Signal.IGNORE;
+                release(permit);
+            }
+        }
+    }
+
+    static final class Permit {
+        private final long startedAt = System.nanoTime();
+        private volatile Signal signal = Signal.IGNORE;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        void signal(Signal signal) {
+            this.signal = signal;
+        }
+    }
+}
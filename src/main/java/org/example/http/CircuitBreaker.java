@@ -0,0 +1,77 @@
+package org.example.http;
+
+/**
+ * Consecutive-failure breaker: after {@code failureThreshold} failures in a row the host is cut off
+ * for {@code openNanos}, then a single probe request decides whether to close it again.
+ */
+final class CircuitBreaker {
+
+    enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openNanos;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    CircuitBreaker(int failureThreshold, long openNanos) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openNanos = openNanos;
+    }
+
+    synchronized boolean tryPass() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (System.nanoTime() - openedAt < openNanos) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                probeInFlight = true;
+                return true;
+            default:
+                if (probeInFlight) {
+                    return false;
+                }
+                probeInFlight = true;
+                return true;
+        }
+    }
+
+    synchronized void onSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        probeInFlight = false;
+    }
+
+    /**
+     * @return {@code true} if this failure opened the breaker
+     */
+    synchronized boolean onFailure() {
+        probeInFlight = false;
+        if (state == State.HALF_OPEN || ++consecutiveFailures >= failureThreshold) {
+            boolean opened = state != State.OPEN;
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+            return opened;
+        }
+        return false;
+    }
+
+    /**
+     * Outcome that says nothing about the host's health (e.g. 429): a half-open probe slot is
+     * handed back so the next request can probe instead.
+     */
+    synchronized void onNeutral() {
+        probeInFlight = false;
+    }
+
+    synchronized State state() {
+        return state;
+    }
+}
@@ -0,0 +1,13 @@
+package org.example.http;
+
+import java.io.IOException;
+
+/**
+ * Thrown without touching the network while the circuit breaker for a host is open.
+ */
+public class CircuitOpenException extends IOException {
+
+    public CircuitOpenException(String host) {
+        super("Circuit breaker для " + host + " відкритий, запит не виконано");
+    }
+}
@@ -0,0 +1,60 @@
+package org.example.http;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.handler.ssl.SslHandler;
+import org.springframework.stereotype.Component;
+import reactor.netty.Connection;
+import reactor.netty.ConnectionObserver;
+
+/**
+ * Counts what the shared client's pool does with connections: every request acquires one, but only
+ * a cache miss opens a new socket (and, for https, pays for a TLS handshake). {@code acquired -
+ * opened} is the number of requests that reused a kept-alive connection.
+ */
+@Component
+public class ConnectionStats implements ConnectionObserver {
+
+    private final Counter opened;
+    private final Counter acquired;
+    private final Counter tlsHandshakes;
+    private final Counter closed;
+
+    public ConnectionStats(MeterRegistry registry) {
+        this.opened = Counter.builder("outbound.connections.opened")
+                .description("New outbound TCP connections")
+                .register(registry);
+        this.acquired = Counter.builder("outbound.connections.acquired")
+                .description("Connections handed to a request, new or reused from the pool")
+                .register(registry);
+        this.tlsHandshakes = Counter.builder("outbound.connections.tls.handshakes")
+                .description("Completed TLS handshakes on new outbound connections")
+                .register(registry);
+        this.closed = Counter.builder("outbound.connections.closed")
+                .description("Outbound connections closed or evicted from the pool")
+                .register(registry);
+    }
+
+    @Override
+    public void onStateChange(Connection connection, State newState) {
+        if (newState == State.CONNECTED) {
+            opened.increment();
+            // CONNECTED is only signalled once the handshake of a secured connection has completed
+            if (connection.channel().pipeline().get(SslHandler.class) != null) {
+                tlsHandshakes.increment();
+            }
+        } else if (newState == State.ACQUIRED) {
+            acquired.increment();
+        } else if (newState == State.DISCONNECTING) {
+            closed.increment();
+        }
+    }
+
+    public long opened() {
+        return (long) opened.count();
+    }
+
+    public long reused() {
+        return Math.max(0, (long) (acquired.count() - opened.count()));
+    }
+}
@@ -0,0 +1,336 @@
+package org.example.http;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.example.http.AdaptiveLimit.Permit;
+import org.example.http.AdaptiveLimit.Signal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Shared gate for every outbound request, so the CoinLore client and the scraper back off the same
+ * way. Per host it keeps an {@link AdaptiveLimit} on concurrent requests, a {@link CircuitBreaker},
+ * and a pause set from {@code Retry-After}; failed attempts that are worth repeating (429, 5xx,
+ * I/O errors) are retried with full-jitter exponential backoff.
+ */
+@Component
+public class OutboundGovernor {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboundGovernor.class);
+
+    private final MeterRegistry registry;
+    private final Map<String, Host> hosts = new ConcurrentHashMap<>();
+
+    @Value("${outbound.limit.initial:4}")
+    private int initialLimit;
+
+    @Value("${outbound.limit.min:1}")
+    private int minLimit;
+
+    @Value("${outbound.limit.max:16}")
+    private int maxLimit;
+
+    @Value("${outbound.limit.latency-tolerance:2.0}")
+    private double latencyTolerance;
+
+    @Value("${outbound.retry.max-attempts:4}")
+    private int maxAttempts;
+
+    @Value("${outbound.retry.base-delay-ms:200}")
+    private long baseDelayMs;
+
+    @Value("${outbound.retry.max-delay-ms:10000}")
+    private long maxDelayMs;
+
+    @Value("${outbound.retry.max-retry-after-ms:60000}")
+    private long maxRetryAfterMs;
+
+    @Value("${outbound.breaker.failure-threshold:5}")
+    private int failureThreshold;
+
+    @Value("${outbound.breaker.open-ms:30000}")
+    private long openMs;
+
+    public OutboundGovernor(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public static String hostOf(String url) {
+        String host = URI.create(url).getHost();
+        return host != null ? host : url;
+    }
+
+    /**
+     * Runs a blocking request under the host's limit, retrying it as needed. The request should
+     * throw {@link UpstreamStatusException} for 429/5xx responses so they can be retried.
+     */
+    public <T> T execute(String host, Callable<T> request) throws IOException {
+        Host state = host(host);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                pauseIfRequested(state);
+                return attemptBlocking(state, request);
+            } catch (Exception e) {
+                Verdict verdict = classify(e);
+                Duration delay = retryDelay(state, verdict, attempt, e);
+                if (delay == null) {
+                    throw asIOException(e);
+                }
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Очікування повтору перервано");
+                }
+            }
+        }
+    }
+
+    /**
+     * Reactive counterpart of {@link #execute(String, Callable)}; {@code request} is re-subscribed for
+     * every attempt, so it must be lazy (as a WebClient exchange is).
+     */
+    public <T> Mono<T> execute(String host, Mono<T> request) {
+        return attemptReactive(host(host), request, 1);
+    }
+
+    private <T> T attemptBlocking(Host state, Callable<T> request) throws Exception {
+        if (!state.breaker.tryPass()) {
+            throw new CircuitOpenException(state.name);
+        }
+        Permit permit;
+        try {
+            permit = awaitPermit(state);
+        } catch (InterruptedIOException e) {
+            state.breaker.onNeutral();
+            throw e;
+        }
+        try {
+            T result = request.call();
+            record(state, permit, Verdict.SUCCESS);
+            return result;
+        } catch (Exception e) {
+            record(state, permit, classify(e));
+            throw e;
+        } finally {
+            state.limit.release(permit);
+        }
+    }
+
+    private <T> Mono<T> attemptReactive(Host state, Mono<T> request, int attempt) {
+        return Mono.defer(() -> {
+                    if (!state.breaker.tryPass()) {
+                        return Mono.<T>error(new CircuitOpenException(state.name));
+                    }
+                    Mono<T> call = Mono.usingWhen(
+                            Mono.fromFuture(state.limit::acquire),
+                            permit -> request
+                                    .doOnSuccess(value -> record(state, permit, Verdict.SUCCESS))
+                                    .doOnError(e -> record(state, permit, classify(e))),
+                            permit -> Mono.fromRunnable(() -> state.limit.release(permit)),
+                            (permit, e) -> Mono.fromRunnable(() -> state.limit.release(permit)),
+                            permit -> Mono.fromRunnable(() -> {
+                                state.breaker.onNeutral();
+                                state.limit.release(permit);
+                            }));
+                    Duration pause = state.remainingPause();
+                    return pause.isZero() ? call : Mono.delay(pause).then(call);
+                })
+                .onErrorResume(e -> {
+                    Duration delay = retryDelay(state, classify(e), attempt, e);
+                    return delay == null
+                            ? Mono.error(e)
+                            : Mono.delay(delay).then(attemptReactive(state, request, attempt + 1));
+                });
+    }
+
+    private Permit awaitPermit(Host state) throws InterruptedIOException {
+        var pending = state.limit.acquire();
+        try {
+            return pending.get();
+        } catch (InterruptedException e) {
+            if (!pending.cancel(false)) {
+                state.limit.release(pending.join());
+            }
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Очікування дозволу на запит перервано");
+        } catch (ExecutionException | CancellationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void record(Host state, Permit permit, Verdict verdict) {
+        permit.signal(verdict.signal);
+        switch (verdict.breaker) {
+            case SUCCESS -> state.breaker.onSuccess();
+            case FAILURE -> {
+                if (state.breaker.onFailure()) {
+                    log.warn("Circuit breaker для {} відкрито на {} мс.", state.name, openMs);
+                    registry.counter("outbound.breaker.opened", "host", state.name).increment();
+                }
+            }
+            case NEUTRAL -> state.breaker.onNeutral();
+        }
+        if (verdict.retryAfter != null) {
+            state.pauseFor(verdict.retryAfter);
+        }
+    }
+
+    /**
+     * @return how long to wait before the next attempt, or {@code null} if the error should be
+     * propagated
+     */
+    private Duration retryDelay(Host state, Verdict verdict, int attempt, Throwable error) {
+        if (!verdict.retryable || attempt >= maxAttempts) {
+            return null;
+        }
+        Duration delay;
+        if (verdict.retryAfter != null) {
+            if (verdict.retryAfter.toMillis() > maxRetryAfterMs) {
+                log.warn("{} просить зачекати {} с, що більше за ліміт; повтор скасовано.",
+                        state.name, verdict.retryAfter.toSeconds());
+                return null;
+            }
+            delay = verdict.retryAfter;
+        } else {
+            long cap = Math.min(maxDelayMs, baseDelayMs << Math.min(attempt - 1, 20));
+            delay = Duration.ofMillis(ThreadLocalRandom.current().nextLong(cap + 1));
+        }
+        registry.counter("outbound.retries", Tags.of("host", state.name, "reason", verdict.reason)).increment();
+        log.warn("Спроба {} запиту до {} не вдалася ({}), повтор через {} мс.",
+                attempt, state.name, error.getMessage(), delay.toMillis());
+        return delay;
+    }
+
+    private static void pauseIfRequested(Host state) throws InterruptedIOException {
+        Duration pause = state.remainingPause();
+        if (!pause.isZero()) {
+            try {
+                Thread.sleep(pause);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Очікування Retry-After перервано");
+            }
+        }
+    }
+
+    private Verdict classify(Throwable error) {
+        if (error instanceof CircuitOpenException) {
+            return Verdict.NOT_RETRYABLE;
+        }
+        if (error instanceof UpstreamStatusException status) {
+            return Verdict.forStatus(status.getStatus(), status.getRetryAfter());
+        }
+        if (error instanceof WebClientResponseException response) {
+            return Verdict.forStatus(response.getStatusCode().value(),
+                    UpstreamStatusException.parseRetryAfter(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)));
+        }
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SocketTimeoutException || cause instanceof TimeoutException
+                    || cause instanceof io.netty.handler.timeout.TimeoutException) {
+                return Verdict.TIMEOUT;
+            }
+        }
+        if (error instanceof IOException || error instanceof WebClientRequestException) {
+            return Verdict.NETWORK;
+        }
+        return Verdict.NOT_RETRYABLE;
+    }
+
+    private static IOException asIOException(Exception e) {
+        if (e instanceof IOException io) {
+            return io;
+        }
+        if (e instanceof RuntimeException runtime) {
+            throw runtime;
+        }
+        return new IOException(e.getMessage(), e);
+    }
+
+    private Host host(String name) {
+        return hosts.computeIfAbsent(name, n -> {
+            Host host = new Host(n, new AdaptiveLimit(initialLimit, minLimit, maxLimit, latencyTolerance),
+                    new CircuitBreaker(failureThreshold, openMs * 1_000_000L));
+            registry.gauge("outbound.limit", Tags.of("host", n), host.limit, AdaptiveLimit::limit);
+            registry.gauge("outbound.inflight", Tags.of("host", n), host.limit, AdaptiveLimit::inFlight);
+            registry.gauge("outbound.breaker.state", Tags.of("host", n), host.breaker, b -> b.state().ordinal());
+            return host;
+        });
+    }
+
+    private enum BreakerEffect {
+        SUCCESS, FAILURE, NEUTRAL
+    }
+
+    private record Verdict(boolean retryable, Signal signal, BreakerEffect breaker, Duration retryAfter, String reason) {
+
+        static final Verdict SUCCESS = new Verdict(false, Signal.SUCCESS, BreakerEffect.SUCCESS, null, "success");
+        static final Verdict TIMEOUT = new Verdict(true, Signal.OVERLOAD, BreakerEffect.FAILURE, null, "timeout");
+        static final Verdict NETWORK = new Verdict(true, Signal.IGNORE, BreakerEffect.FAILURE, null, "network");
+        static final Verdict NOT_RETRYABLE = new Verdict(false, Signal.IGNORE, BreakerEffect.NEUTRAL, null, "other");
+
+        static Verdict forStatus(int status, Duration retryAfter) {
+            if (status == 429) {
+                return new Verdict(true, Signal.OVERLOAD, BreakerEffect.NEUTRAL, retryAfter, "429");
+            }
+            if (status == 503) {
+                // a 503 with Retry-After is the upstream shedding load; without it, treat it as a plain server error
+                return new Verdict(true, retryAfter != null ? Signal.OVERLOAD : Signal.IGNORE,
+                        BreakerEffect.FAILURE, retryAfter, "503");
+            }
+            if (status == 502 || status == 504) {
+                return new Verdict(true, Signal.OVERLOAD, BreakerEffect.FAILURE, null, String.valueOf(status));
+            }
+            if (status >= 500) {
+                return new Verdict(true, Signal.IGNORE, BreakerEffect.FAILURE, null, "5xx");
+            }
+            // any other answer means the host is up; the caller decides what the status means
+            return new Verdict(false, Signal.IGNORE, BreakerEffect.SUCCESS, null, "4xx");
+        }
+    }
+
+    private static final class Host {
+        private final String name;
+        private final AdaptiveLimit limit;
+        private final CircuitBreaker breaker;
+        private volatile long pausedUntilNanos;
+
+        Host(String name, AdaptiveLimit limit, CircuitBreaker breaker) {
+            this.name = name;
+            this.limit = limit;
+            this.breaker = breaker;
+            this.pausedUntilNanos = System.nanoTime();
+        }
+
+        void pauseFor(Duration delay) {
+            long until = System.nanoTime() + delay.toNanos();
+            if (until - pausedUntilNanos > 0) {
+                pausedUntilNanos = until;
+            }
+        }
+
+        Duration remainingPause() {
+            long remaining = pausedUntilNanos - System.nanoTime();
+            return remaining > 0 ? Duration.ofNanos(remaining) : Duration.ZERO;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package org.example.http;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Non-success status from an upstream that is worth telling the {@link OutboundGovernor} about
+ * (throttling or a server error), together with the parsed {@code Retry-After} hint if any.
+ */
+public class UpstreamStatusException extends IOException {
+
+    private final int status;
+    private final Duration retryAfter;
+
+    public UpstreamStatusException(String url, int status, String retryAfterHeader) {
+        super("HTTP " + status + " від " + url);
+        this.status = status;
+        this.retryAfter = parseRetryAfter(retryAfterHeader);
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * @return the delay requested by the upstream, or {@code null} if none was sent
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    /**
+     * Parses both forms allowed by RFC 9110: delta-seconds and an HTTP-date.
+     */
+    static Duration parseRetryAfter(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String trimmed = value.trim();
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(trimmed)));
+        } catch (NumberFormatException ignored) {
+            // not delta-seconds, try the date form
+        }
+        try {
+            Duration delay = Duration.between(ZonedDateTime.now(), ZonedDateTime.parse(trimmed, DateTimeFormatter.RFC_1123_DATE_TIME));
+            return delay.isNegative() ? Duration.ZERO : delay;
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -1,9 +1,32 @@
 package org.example.repository;
 
+import jakarta.persistence.QueryHint;
 import org.example.entity.Cryptocurrency;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
 @Repository
 public interface CryptocurrencyRepository extends JpaRepository<Cryptocurrency, String> {
-}
\ No newline at end of file
+
+    @Query("select c from Cryptocurrency c")
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    Stream<Cryptocurrency> streamAll();
+
+    Optional<Cryptocurrency> findFirstBySymbolIgnoreCaseOrderByRankAsc(String symbol);
+
+    List<Cryptocurrency> findByRankGreaterThanOrderByRankAsc(Integer rank, Limit limit);
+
+    @Query("select c from Cryptocurrency c order by c.rank asc nulls last")
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    Stream<Cryptocurrency> streamAllByRank();
+}
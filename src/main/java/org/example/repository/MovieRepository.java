@@ -1,16 +1,45 @@
 package org.example.repository;
 
+import jakarta.persistence.QueryHint;
 import org.example.entity.Movie;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface MovieRepository extends JpaRepository<Movie, Long> {
 
     List<Movie> findByReleaseYearBetweenOrderByReleaseYearDescTitleAsc(Integer yearFrom, Integer yearTo);
 
-    Optional<Movie> findByTitle(String title);
-}
\ No newline at end of file
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    Stream<Movie> streamByReleaseYearBetweenOrderByReleaseYearDescTitleAsc(Integer yearFrom, Integer yearTo);
+
+    List<Movie> findByReleaseYearBetweenOrderByReleaseYearDescTitleAscIdAsc(Integer yearFrom, Integer yearTo, Limit limit);
+
+    @Query("""
+            select m from Movie m
+            where m.releaseYear between :yearFrom and :yearTo
+              and (m.releaseYear < :afterYear
+                   or (m.releaseYear = :afterYear
+                       and (m.title > :afterTitle or (m.title = :afterTitle and m.id > :afterId))))
+            order by m.releaseYear desc, m.title asc, m.id asc
+            """)
+    List<Movie> findPageAfter(@Param("yearFrom") Integer yearFrom,
+                              @Param("yearTo") Integer yearTo,
+                              @Param("afterYear") Integer afterYear,
+                              @Param("afterTitle") String afterTitle,
+                              @Param("afterId") Long afterId,
+                              Limit limit);
+
+    List<Movie> findByTitleIn(Collection<String> titles);
+}
@@ -0,0 +1,42 @@
+package org.example.repository;
+
+import org.example.entity.PriceSnapshot;
+import org.example.entity.dto.PriceBucketView;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PriceSnapshotRepository extends JpaRepository<PriceSnapshot, Long> {
+
+    List<PriceSnapshot> findByCoinIdAndCapturedAtBetweenOrderByCapturedAtAsc(String coinId, long from, long to, Limit limit);
+
+    // aliases are quoted: H2 upper-cases unquoted ones and the projection getters match them case-sensitively
+    @Query(value = """
+            SELECT t.bucket * :bucketMillis AS "bucketStart",
+                   MIN(t.price_usd) AS "minPrice",
+                   MAX(t.price_usd) AS "maxPrice",
+                   AVG(t.price_usd) AS "avgPrice",
+                   MAX(CASE WHEN t.rn = 1 THEN t.price_usd END) AS "lastPrice",
+                   MAX(CASE WHEN t.rn = 1 THEN t.market_cap_usd END) AS "lastMarketCapUsd",
+                   MAX(CASE WHEN t.rn = 1 THEN t.volume24 END) AS "lastVolume24",
+                   MAX(CASE WHEN t.rn = 1 THEN t.rank END) AS "lastRank",
+                   COUNT(*) AS "samples"
+            FROM (SELECT s.captured_at / :bucketMillis AS bucket,
+                         s.price_usd, s.market_cap_usd, s.volume24, s.rank,
+                         ROW_NUMBER() OVER (PARTITION BY s.captured_at / :bucketMillis
+                                            ORDER BY s.captured_at DESC, s.id DESC) AS rn
+                  FROM price_snapshots s
+                  WHERE s.coin_id = :coinId AND s.captured_at BETWEEN :fromMillis AND :toMillis) t
+            GROUP BY t.bucket
+            ORDER BY t.bucket
+            """, nativeQuery = true)
+    List<PriceBucketView> findBuckets(@Param("coinId") String coinId,
+                                      @Param("fromMillis") long fromMillis,
+                                      @Param("toMillis") long toMillis,
+                                      @Param("bucketMillis") long bucketMillis);
+}
@@ -1,24 +1,33 @@
 package org.example.service;
 
+import io.micrometer.core.instrument.Timer;
 import org.example.entity.Cryptocurrency;
 import org.example.entity.dto.CoinLoreTickerDto;
 import org.example.entity.dto.CoinLoreTickersResponseDto;
-import org.example.repository.CryptocurrencyRepository;
+import org.example.entity.dto.TickerIngestionSummaryDto;
+import org.example.entity.dto.TickerPollingStatsDto;
+import org.example.http.OutboundGovernor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClient.Builder;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 public class CoinLoreApiService {
@@ -26,16 +35,46 @@ public class CoinLoreApiService {
     private static final Logger log = LoggerFactory.getLogger(CoinLoreApiService.class);
 
     private final WebClient webClient;
-    private final CryptocurrencyRepository repository;
+    private final TickerPersistenceService tickerPersistenceService;
+    private final Scheduler persistenceScheduler;
+    private final PipelineMetrics pipelineMetrics;
+    private final OutboundGovernor outboundGovernor;
+    private final String upstreamHost;
+    private final SingleFlight<List<Cryptocurrency>> fetchFlight = new SingleFlight<>();
     private final String tickersEndpoint;
+    private final int pageSize;
+    private final int pageConcurrency;
+    private final int maxCoins;
+    private final int pollLimit;
+
+    private final Map<String, CoinLoreTickerDto> lastSeenTickers = new ConcurrentHashMap<>();
+    private final AtomicLong polls = new AtomicLong();
+    private final AtomicLong rowsWritten = new AtomicLong();
+    private final AtomicLong rowsSkipped = new AtomicLong();
+    private volatile Instant lastPollAt;
 
     @Autowired
     public CoinLoreApiService(Builder webClientBuilder,
-                              CryptocurrencyRepository repository,
+                              TickerPersistenceService tickerPersistenceService,
+                              @Qualifier("persistenceScheduler") Scheduler persistenceScheduler,
+                              PipelineMetrics pipelineMetrics,
+                              OutboundGovernor outboundGovernor,
                               @Value("${coinlore.api.baseurl}") String baseUrl,
-                              @Value("${coinlore.api.tickers_endpoint:/tickers/}") String tickersEndpoint) {
+                              @Value("${coinlore.api.tickers_endpoint:/tickers/}") String tickersEndpoint,
+                              @Value("${coinlore.api.page-size:100}") int pageSize,
+                              @Value("${coinlore.api.page-concurrency:4}") int pageConcurrency,
+                              @Value("${coinlore.api.max-coins:20000}") int maxCoins,
+                              @Value("${coinlore.polling.limit:100}") int pollLimit) {
         this.webClient = webClientBuilder.baseUrl(baseUrl).build();
-        this.repository = repository;
+        this.tickerPersistenceService = tickerPersistenceService;
+        this.persistenceScheduler = persistenceScheduler;
+        this.pipelineMetrics = pipelineMetrics;
+        this.outboundGovernor = outboundGovernor;
+        this.upstreamHost = OutboundGovernor.hostOf(baseUrl);
+        this.pageSize = pageSize;
+        this.pageConcurrency = pageConcurrency;
+        this.maxCoins = maxCoins;
+        this.pollLimit = pollLimit;
         this.tickersEndpoint = (tickersEndpoint != null && !tickersEndpoint.isEmpty() && !tickersEndpoint.startsWith("/"))
                 ? "/" + tickersEndpoint
                 : tickersEndpoint;
@@ -43,45 +82,137 @@ public class CoinLoreApiService {
     }
 
 
-    @Transactional
+    /**
+     * Fetches the first page of tickers and saves it. Concurrent callers share the run already in
+     * flight; one subscriber cancelling does not cancel it for the others. Upstream and database
+     * errors are propagated, including {@link org.example.http.CircuitOpenException} while CoinLore is cut off.
+     */
     public Mono<List<Cryptocurrency>> fetchAndSaveTickers() {
+        return Mono.fromFuture(() -> fetchFlight.submit(() -> fetchAndSaveTickersOnce().toFuture()), true);
+    }
+
+    private Mono<List<Cryptocurrency>> fetchAndSaveTickersOnce() {
         log.info("Запит даних з CoinLore API ендпоінта: {}", tickersEndpoint);
-        return webClient.get()
+        return fetchTickerPage(0, 100)
+                .map(this::mapDtosToEntities)
+                .flatMap(entities -> {
+                    if (entities.isEmpty()) {
+                        log.warn("Не отримано даних від CoinLore API чи не вдалося їх смаппити.");
+                        return Mono.just(Collections.<Cryptocurrency>emptyList());
+                    }
+                    log.info("Отримано {} тикерів для забереження/оновлення.", entities.size());
+                    return saveChunk(entities, Instant.now())
+                            .doOnNext(savedEntities -> log.info("Успішно збережено/оновлено {} записів у БД.", savedEntities.size()));
+                })
+                .doOnError(e -> log.error("Не вдалося отримати та зберегти дані: {}", e.getMessage(), e));
+    }
+
+    public Mono<TickerIngestionSummaryDto> ingestAllTickers() {
+        int maxPages = (maxCoins + pageSize - 1) / pageSize;
+        log.info("Повне завантаження тикерів з CoinLore: сторінки по {}, до {} паралельних запитів.", pageSize, pageConcurrency);
+        long startNanos = System.nanoTime();
+        Instant capturedAt = Instant.now();
+
+        return Flux.range(0, maxPages)
+                .flatMapSequential(page -> fetchTickerPage(page * pageSize, pageSize), pageConcurrency)
+                .takeUntil(page -> page.size() < pageSize)
+                .filter(page -> !page.isEmpty())
+                .concatMap(page -> saveChunk(mapDtosToEntities(page), capturedAt))
+                .reduce(new TickerIngestionSummaryDto(0, 0, 0),
+                        (summary, saved) -> new TickerIngestionSummaryDto(summary.pages() + 1, summary.tickers() + saved.size(), 0))
+                .map(summary -> new TickerIngestionSummaryDto(summary.pages(), summary.tickers(),
+                        (System.nanoTime() - startNanos) / 1_000_000))
+                .doOnSuccess(summary -> log.info("Повне завантаження завершено: {} сторінок, {} тикерів за {} мс.",
+                        summary.pages(), summary.tickers(), summary.elapsedMillis()))
+                .doOnError(e -> log.error("Не вдалося завершити повне завантаження тикерів: {}", e.getMessage(), e));
+    }
+
+    public Mono<List<Cryptocurrency>> pollChangedTickers() {
+        return fetchTickerPage(0, pollLimit)
+                .flatMap(tickers -> {
+                    List<CoinLoreTickerDto> changed = new ArrayList<>();
+                    for (CoinLoreTickerDto dto : tickers) {
+                        if (dto != null && dto.getId() != null && !dto.equals(lastSeenTickers.get(dto.getId()))) {
+                            changed.add(dto);
+                        }
+                    }
+                    polls.incrementAndGet();
+                    rowsSkipped.addAndGet(tickers.size() - changed.size());
+                    pipelineMetrics.recordRows(PipelineMetrics.CRYPTO, 0, 0, tickers.size() - changed.size());
+                    lastPollAt = Instant.now();
+
+                    if (changed.isEmpty()) {
+                        log.debug("Опитування CoinLore: змін немає ({} тикерів).", tickers.size());
+                        return Mono.just(List.<Cryptocurrency>of());
+                    }
+
+                    return saveChunk(mapDtosToEntities(changed), lastPollAt)
+                            .doOnNext(written -> {
+                                changed.forEach(dto -> lastSeenTickers.put(dto.getId(), dto));
+                                rowsWritten.addAndGet(written.size());
+                                log.info("Опитування CoinLore: записано {} змінених тикерів, пропущено {} без змін.",
+                                        written.size(), tickers.size() - changed.size());
+                            });
+                });
+    }
+
+    /**
+     * Runs the blocking JPA write on the bounded persistence scheduler, so the WebClient event loop
+     * that delivered the page is never held by JDBC; each chunk commits in its own transaction.
+     * Chunks from a manual fetch and a scheduled poll may overlap: the upsert is a database-side
+     * {@code MERGE}, so they only wait on each other for the rows they share.
+     */
+    private Mono<List<Cryptocurrency>> saveChunk(List<Cryptocurrency> entities, Instant capturedAt) {
+        return Mono.fromCallable(() -> pipelineMetrics.recordDbWrite(PipelineMetrics.CRYPTO,
+                        () -> tickerPersistenceService.saveChunk(entities, capturedAt)))
+                .subscribeOn(persistenceScheduler);
+    }
+
+    private List<Cryptocurrency> mapDtosToEntities(List<CoinLoreTickerDto> dtos) {
+        List<Cryptocurrency> entities = new ArrayList<>(dtos.size());
+        for (CoinLoreTickerDto dto : dtos) {
+            Cryptocurrency entity = mapDtoToEntity(dto);
+            if (entity != null) {
+                entities.add(entity);
+            }
+        }
+        return entities;
+    }
+
+    public TickerPollingStatsDto getPollingStats() {
+        return new TickerPollingStatsDto(polls.get(), rowsWritten.get(), rowsSkipped.get(), lastPollAt);
+    }
+
+    private Mono<List<CoinLoreTickerDto>> fetchTickerPage(int start, int limit) {
+        return Mono.defer(() -> {
+            Timer.Sample request = pipelineMetrics.startTimer();
+            return requestTickerPage(start, limit)
+                    .doOnSuccess(page -> pipelineMetrics.recordUpstream(PipelineMetrics.CRYPTO, request, true))
+                    .doOnError(e -> pipelineMetrics.recordUpstream(PipelineMetrics.CRYPTO, request, false));
+        });
+    }
+
+    private Mono<List<CoinLoreTickerDto>> requestTickerPage(int start, int limit) {
+        Mono<CoinLoreTickersResponseDto> request = webClient.get()
                 .uri(uriBuilder -> uriBuilder
                         .path(tickersEndpoint)
-                        .queryParam("start", "0")
-                        .queryParam("limit", "100")
+                        .queryParam("start", start)
+                        .queryParam("limit", limit)
                         .build())
                 .retrieve()
-                .bodyToMono(CoinLoreTickersResponseDto.class)
+                .bodyToMono(CoinLoreTickersResponseDto.class);
+        return outboundGovernor.execute(upstreamHost, request)
                 .doOnError(WebClientResponseException.class, ex ->
                         log.error("Помилка HTTP при запиті до CoinLore API: Status={}, Body={}", ex.getStatusCode(), ex.getResponseBodyAsString())
                 )
                 .doOnError(Exception.class, ex ->
                         log.error("Помилка при обробці відповіді від CoinLore API: {}", ex.getMessage(), ex)
                 )
-                .map(CoinLoreTickersResponseDto::getData)
-                .filter(Objects::nonNull)
-                .flatMapMany(Flux::fromIterable)
-                .map(this::mapDtoToEntity)
-                .collectList()
-                .flatMap(entities -> {
-                    if (entities.isEmpty()) {
-                        log.warn("Не отримано даних від CoinLore API чи не вдалося їх смаппити.");
-                        return Mono.just(Collections.<Cryptocurrency>emptyList());
-                    }
-                    log.info("Отримано {} тикерів для забереження/оновлення.", entities.size());
-                    List<Cryptocurrency> savedEntities = repository.saveAll(entities);
-                    log.info("Успішно збережено/оновлено {} записів у БД.", savedEntities.size());
-                    return Mono.just(savedEntities);
-                })
-                .onErrorResume(e -> {
-                    log.error("Не вдалося отримати та зберегти дані: {}", e.getMessage(), e);
-                    return Mono.just(Collections.emptyList());
-                });
+                .map(response -> response.getData() != null ? response.getData() : List.<CoinLoreTickerDto>of())
+                .defaultIfEmpty(List.of());
     }
 
-    private Cryptocurrency mapDtoToEntity(CoinLoreTickerDto dto) {
+    static Cryptocurrency mapDtoToEntity(CoinLoreTickerDto dto) {
         if (dto == null) {
             return null;
         }
@@ -92,16 +223,40 @@ public class CoinLoreApiService {
         entity.setNameid(dto.getNameid());
         entity.setRank(dto.getRank());
         entity.setPrice_usd(dto.getPrice_usd());
-        entity.setPercent_change_1h(dto.getPercent_change_1h());
-        entity.setPercent_change_24h(dto.getPercent_change_24h());
-        entity.setPercent_change_7d(dto.getPercent_change_7d());
+        entity.setPercent_change_1h(parseDouble(dto.getPercent_change_1h()));
+        entity.setPercent_change_24h(parseDouble(dto.getPercent_change_24h()));
+        entity.setPercent_change_7d(parseDouble(dto.getPercent_change_7d()));
         entity.setMarket_cap_usd(dto.getMarket_cap_usd());
         entity.setVolume24(dto.getVolume24());
         entity.setVolume24a(dto.getVolume24a());
-        entity.setCsupply(dto.getCsupply());
-        entity.setTsupply(dto.getTsupply());
-        entity.setMsupply(dto.getMsupply());
+        entity.setCsupply(parseDecimal(dto.getCsupply()));
+        entity.setTsupply(parseDecimal(dto.getTsupply()));
+        entity.setMsupply(parseDecimal(dto.getMsupply()));
 
         return entity;
     }
+
+    private static Double parseDouble(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Double.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            log.debug("Не вдалося перетворити '{}' на число.", value);
+            return null;
+        }
+    }
+
+    private static BigDecimal parseDecimal(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return new BigDecimal(value.trim());
+        } catch (NumberFormatException e) {
+            log.debug("Не вдалося перетворити '{}' на число.", value);
+            return null;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,98 @@
+package org.example.service;
+
+import org.example.entity.Cryptocurrency;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.example.entity.dto.KeysetPageDto;
+import org.example.entity.dto.TickerQueryDto;
+import org.example.repository.CryptocurrencyRepository;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class CryptoQueryService {
+
+    private static final Map<String, String> SORT_FIELDS = Map.of(
+            "rank", "rank",
+            "price", "price_usd",
+            "marketCap", "market_cap_usd",
+            "volume24", "volume24",
+            "change1h", "percent_change_1h",
+            "change24h", "percent_change_24h",
+            "change7d", "percent_change_7d");
+
+    @Autowired
+    private CryptocurrencyRepository repository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public KeysetPageDto<Cryptocurrency> getTickersPage(String cursor, int limit) {
+        int afterRank = 0;
+        if (cursor != null && !cursor.isEmpty()) {
+            try {
+                afterRank = Integer.parseInt(cursor);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Некоректний курсор: " + cursor, e);
+            }
+        }
+
+        List<Cryptocurrency> tickers = repository.findByRankGreaterThanOrderByRankAsc(afterRank, Limit.of(limit));
+        String nextCursor = tickers.size() == limit ? String.valueOf(tickers.get(tickers.size() - 1).getRank()) : null;
+        return new KeysetPageDto<>(tickers, nextCursor);
+    }
+
+    /**
+     * Filters, sorts and limits in a single SQL query; the sort and filter columns are the indexed
+     * numeric ones, so "top N movers above a market cap" never loads the whole table.
+     */
+    @Transactional(readOnly = true)
+    public List<Cryptocurrency> query(TickerQueryDto query) {
+        String sortField = SORT_FIELDS.get(query.sort());
+        if (sortField == null) {
+            throw new IllegalArgumentException("Невідоме поле сортування: " + query.sort());
+        }
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Cryptocurrency> cq = cb.createQuery(Cryptocurrency.class);
+        Root<Cryptocurrency> root = cq.from(Cryptocurrency.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.isNotNull(root.get(sortField)));
+        if (query.minMarketCap() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(root.get("market_cap_usd"), query.minMarketCap()));
+        }
+        if (query.maxMarketCap() != null) {
+            predicates.add(cb.lessThanOrEqualTo(root.get("market_cap_usd"), query.maxMarketCap()));
+        }
+        if (query.minVolume24() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(root.get("volume24"), query.minVolume24()));
+        }
+        if (query.minChange24h() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(root.get("percent_change_24h"), query.minChange24h()));
+        }
+        if (query.maxChange24h() != null) {
+            predicates.add(cb.lessThanOrEqualTo(root.get("percent_change_24h"), query.maxChange24h()));
+        }
+
+        cq.select(root)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(query.descending() ? cb.desc(root.get(sortField)) : cb.asc(root.get(sortField)), cb.asc(root.get("id")));
+
+        return entityManager.createQuery(cq)
+                .setMaxResults(query.limit())
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultList();
+    }
+}
@@ -0,0 +1,64 @@
+package org.example.service;
+
+import org.example.event.MoviesChangedEvent;
+import org.example.event.TickersChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonic per-dataset version, bumped whenever an ingestion commits. Versions start over on
+ * restart, so {@link #getEpoch()} identifies the process they belong to.
+ */
+@Service
+public class DataVersionService {
+
+    public enum Dataset {
+        CRYPTO, MOVIES
+    }
+
+    private final long epoch = System.currentTimeMillis();
+    private final Map<Dataset, AtomicLong> versions = new EnumMap<>(Dataset.class);
+
+    @Autowired
+    private ExportCache exportCache;
+
+    public DataVersionService() {
+        for (Dataset dataset : Dataset.values()) {
+            versions.put(dataset, new AtomicLong());
+        }
+    }
+
+    public long getEpoch() {
+        return epoch;
+    }
+
+    public long getVersion(Dataset dataset) {
+        return versions.get(dataset).get();
+    }
+
+    public ExportCache.ExportKey exportKey(Dataset dataset, String format, Integer yearFrom, Integer yearTo) {
+        return new ExportCache.ExportKey(dataset, format, yearFrom, yearTo, epoch, getVersion(dataset));
+    }
+
+    public long bump(Dataset dataset) {
+        long version = versions.get(dataset).incrementAndGet();
+        exportCache.evictOlderThan(dataset, version);
+        return version;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMoviesChanged(MoviesChangedEvent event) {
+        bump(Dataset.MOVIES);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTickersChanged(TickersChangedEvent event) {
+        bump(Dataset.CRYPTO);
+    }
+}
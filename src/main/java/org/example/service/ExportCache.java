@@ -0,0 +1,135 @@
+package org.example.service;
+
+import org.example.service.DataVersionService.Dataset;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Byte-bounded LRU cache of generated export files, keyed by dataset, format, year range and data version.
+ */
+@Component
+public class ExportCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportCache.class);
+
+    public record ExportKey(Dataset dataset, String format, Integer yearFrom, Integer yearTo, long epoch, long version) {
+
+        public String etag() {
+            StringBuilder etag = new StringBuilder("\"")
+                    .append(dataset.name().toLowerCase()).append('-').append(format);
+            if (yearFrom != null && yearTo != null) {
+                etag.append('-').append(yearFrom).append('-').append(yearTo);
+            }
+            return etag.append('-').append(Long.toString(epoch, 36)).append('-').append(version).append('"').toString();
+        }
+    }
+
+    @FunctionalInterface
+    public interface ExportWriter {
+        void write(OutputStream out) throws IOException;
+    }
+
+    private final long maxBytes;
+    private final long maxEntryBytes;
+    private final LinkedHashMap<ExportKey, byte[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    public ExportCache(@Value("${export.cache.max-bytes:67108864}") long maxBytes,
+                       @Value("${export.cache.max-entry-bytes:16777216}") long maxEntryBytes) {
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = Math.min(maxEntryBytes, maxBytes);
+    }
+
+    public synchronized byte[] get(ExportKey key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Runs the writer against {@code out} while keeping a copy of the bytes; the copy is cached once
+     * the writer finishes, unless it grew past the per-entry limit.
+     */
+    public void writeThrough(ExportKey key, OutputStream out, ExportWriter writer) throws IOException {
+        CapturingOutputStream capture = new CapturingOutputStream(out, maxEntryBytes);
+        writer.write(capture);
+        capture.flush();
+        byte[] bytes = capture.captured();
+        if (bytes != null) {
+            put(key, bytes);
+        }
+    }
+
+    public synchronized void evictOlderThan(Dataset dataset, long version) {
+        Iterator<Map.Entry<ExportKey, byte[]>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<ExportKey, byte[]> entry = it.next();
+            if (entry.getKey().dataset() == dataset && entry.getKey().version() < version) {
+                totalBytes -= entry.getValue().length;
+                it.remove();
+            }
+        }
+    }
+
+    private synchronized void put(ExportKey key, byte[] bytes) {
+        byte[] previous = entries.put(key, bytes);
+        if (previous != null) {
+            totalBytes -= previous.length;
+        }
+        totalBytes += bytes.length;
+
+        Iterator<Map.Entry<ExportKey, byte[]>> it = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && it.hasNext()) {
+            Map.Entry<ExportKey, byte[]> eldest = it.next();
+            totalBytes -= eldest.getValue().length;
+            it.remove();
+        }
+        log.debug("Експорт {} збережено в кеш ({} байт, всього {} байт).", key, bytes.length, totalBytes);
+    }
+
+    private static final class CapturingOutputStream extends FilterOutputStream {
+        private final long limit;
+        private ByteArrayOutputStream copy = new ByteArrayOutputStream();
+
+        CapturingOutputStream(OutputStream out, long limit) {
+            super(out);
+            this.limit = limit;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            if (copy != null) {
+                copy.write(b);
+                checkLimit();
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            if (copy != null) {
+                copy.write(b, off, len);
+                checkLimit();
+            }
+        }
+
+        byte[] captured() {
+            return copy != null ? copy.toByteArray() : null;
+        }
+
+        private void checkLimit() {
+            if (copy.size() > limit) {
+                copy = null;
+            }
+        }
+    }
+}
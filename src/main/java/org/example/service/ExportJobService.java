@@ -0,0 +1,233 @@
+package org.example.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.example.entity.dto.ExportFileDto;
+import org.example.entity.dto.JobStatusDto;
+import org.example.service.DataVersionService.Dataset;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Runs exports in the background on a bounded worker pool and spools the result to disk, so the
+ * download can be served (and resumed) from a file instead of holding a request thread and the
+ * whole workbook in memory. Spooled files are deleted after {@code export.spool.ttl-ms}.
+ */
+@Service
+public class ExportJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportJobService.class);
+
+    private static final int SPOOL_BUFFER_SIZE = 64 * 1024;
+
+    public enum ExportFormat {
+        XLSX("xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"),
+        CSV("csv", "text/csv; charset=UTF-8"),
+        NDJSON("ndjson", "application/x-ndjson");
+
+        private final String extension;
+        private final String contentType;
+
+        ExportFormat(String extension, String contentType) {
+            this.extension = extension;
+            this.contentType = contentType;
+        }
+
+        public static Optional<ExportFormat> parse(String value) {
+            for (ExportFormat format : values()) {
+                if (format.extension.equalsIgnoreCase(value)) {
+                    return Optional.of(format);
+                }
+            }
+            return Optional.empty();
+        }
+    }
+
+    public record SpooledFile(Path path, String fileName, String contentType, long size, Instant createdAt) {
+    }
+
+    @Autowired
+    private JobService jobService;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Value("${export.spool.dir:${java.io.tmpdir}/banksdata-export-spool}")
+    private Path spoolDir;
+
+    @Value("${export.spool.ttl-ms:3600000}")
+    private long ttlMillis;
+
+    @Value("${export.jobs.workers:2}")
+    private int workers;
+
+    @Value("${export.jobs.queue-size:16}")
+    private int queueSize;
+
+    private final Map<String, SpooledFile> files = new ConcurrentHashMap<>();
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void init() throws IOException {
+        Files.createDirectories(spoolDir);
+        AtomicInteger threadIndex = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                r -> {
+                    Thread thread = new Thread(r, "export-worker-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        deleteStaleFiles(Instant.MAX);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Queues an export. A job with the same dataset, format and year range that is still running
+     * is returned instead of starting another one. If the worker queue is full the job fails.
+     */
+    public JobStatusDto submit(Dataset dataset, ExportFormat format, Integer yearFrom, Integer yearTo) {
+        String fileName = fileName(dataset, format, yearFrom, yearTo);
+        String type = "export-" + fileName;
+        // the job id is only known once submitAsync returns, so the spool step waits for it
+        CompletableFuture<String> jobId = new CompletableFuture<>();
+        JobStatusDto status = jobService.submitAsync(type,
+                () -> jobId.thenApplyAsync(id -> spool(id, dataset, format, yearFrom, yearTo, fileName), executor));
+        jobId.complete(status.id());
+        return status;
+    }
+
+    public Optional<SpooledFile> getFile(String jobId) {
+        SpooledFile file = files.get(jobId);
+        return file != null && Files.exists(file.path()) ? Optional.of(file) : Optional.empty();
+    }
+
+    @Scheduled(fixedDelayString = "${jobs.cleanup-interval-ms:60000}")
+    public void evictExpired() {
+        Instant cutoff = Instant.now().minus(Duration.ofMillis(ttlMillis));
+        files.entrySet().removeIf(entry -> {
+            SpooledFile file = entry.getValue();
+            if (file.createdAt().isAfter(cutoff)) {
+                return false;
+            }
+            delete(file.path());
+            return true;
+        });
+        deleteStaleFiles(cutoff);
+    }
+
+    private ExportFileDto spool(String jobId, Dataset dataset, ExportFormat format, Integer yearFrom, Integer yearTo,
+                                String fileName) {
+        long startNanos = System.nanoTime();
+        Path part = spoolDir.resolve(jobId + "." + format.extension + ".part");
+        Path target = spoolDir.resolve(jobId + "." + format.extension);
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(part), SPOOL_BUFFER_SIZE)) {
+                write(dataset, format, yearFrom, yearTo, out);
+            }
+            Files.move(part, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            delete(part);
+            throw new UncheckedIOException("Не вдалося записати експорт " + fileName, e);
+        } catch (RuntimeException e) {
+            delete(part);
+            throw e;
+        }
+
+        long size;
+        try {
+            size = Files.size(target);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        SpooledFile file = new SpooledFile(target, fileName, format.contentType, size, Instant.now());
+        files.put(jobId, file);
+        log.info("Експорт {} записано у {} ({} байт) за {} мс.", fileName, target, size,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        return new ExportFileDto(fileName, format.contentType, size,
+                file.createdAt().plusMillis(ttlMillis), "/api/jobs/" + jobId + "/download");
+    }
+
+    private void write(Dataset dataset, ExportFormat format, Integer yearFrom, Integer yearTo, OutputStream out)
+            throws IOException {
+        switch (dataset) {
+            case CRYPTO -> {
+                switch (format) {
+                    case XLSX -> exportService.writeExcelForCrypto(out);
+                    case CSV -> exportService.writeCryptoCsv(out);
+                    case NDJSON -> exportService.writeCryptoNdjson(out);
+                }
+            }
+            case MOVIES -> {
+                switch (format) {
+                    case XLSX -> exportService.writeMoviesExcel(yearFrom, yearTo, out);
+                    case CSV -> exportService.writeMoviesCsv(yearFrom, yearTo, out);
+                    case NDJSON -> exportService.writeMoviesNdjson(yearFrom, yearTo, out);
+                }
+            }
+        }
+    }
+
+    private static String fileName(Dataset dataset, ExportFormat format, Integer yearFrom, Integer yearTo) {
+        String base = dataset == Dataset.CRYPTO ? "cryptocurrencies" : "movies_" + yearFrom + "_" + yearTo;
+        return base + "." + format.extension;
+    }
+
+    private void deleteStaleFiles(Instant cutoff) {
+        Set<Path> live = files.values().stream().map(SpooledFile::path).collect(Collectors.toSet());
+        try (Stream<Path> paths = Files.list(spoolDir)) {
+            paths.filter(path -> !live.contains(path))
+                    .filter(path -> isOlderThan(path, cutoff))
+                    .forEach(ExportJobService::delete);
+        } catch (IOException e) {
+            log.warn("Не вдалося очистити каталог експорту {}: {}", spoolDir, e.getMessage());
+        }
+    }
+
+    private static boolean isOlderThan(Path path, Instant cutoff) {
+        try {
+            return Files.getLastModifiedTime(path).toInstant().isBefore(cutoff);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static void delete(Path path) {
+        try {
+            if (Files.deleteIfExists(path)) {
+                log.debug("Видалено файл експорту {}.", path);
+            }
+        } catch (IOException e) {
+            log.warn("Не вдалося видалити файл експорту {}: {}", path, e.getMessage());
+        }
+    }
+}
@@ -1,7 +1,15 @@
 package org.example.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.example.entity.Cryptocurrency;
 import org.example.entity.Movie;
 import org.example.repository.CryptocurrencyRepository;
@@ -10,22 +18,43 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Service
 public class ExportService {
 
     private static final Logger log = LoggerFactory.getLogger(ExportService.class);
 
+    private static final int ROW_ACCESS_WINDOW = 100;
+    private static final int MAX_COLUMN_CHARS = 60;
+    private static final int NDJSON_FLUSH_ROWS = 100;
+    private static final int CSV_BUFFER_CHARS = 64 * 1024;
+
     @Autowired
     private CryptocurrencyRepository cryptocurrencyRepository;
     @Autowired
     private MovieRepository movieRepository;
+    @Autowired
+    private MovieCache movieCache;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
+    @PersistenceContext
+    private EntityManager entityManager;
+
     private final static String[] CRYPTO_HEADERS = {
             "ID", "Symbol", "Name", "Rank", "Price USD", "% Change 1h", "% Change 24h", "% Change 7d",
             "Market Cap USD", "Volume 24h USD", "Volume 24h Native",
@@ -33,138 +62,305 @@ public class ExportService {
     };
 
 
-    public ByteArrayInputStream generateExcelForCrypto() throws IOException {
+    @Transactional(readOnly = true)
+    public void writeExcelForCrypto(OutputStream out) throws IOException {
         log.info("Запит даних для генерації Excel...");
-        List<Cryptocurrency> cryptos = cryptocurrencyRepository.findAll();
-        log.info("Знайдено {} записів для експорту в Excel.", cryptos.size());
 
-        try (Workbook workbook = new XSSFWorkbook();
-             ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+        long startNanos = System.nanoTime();
+        CountingOutputStream counted = new CountingOutputStream(out);
+        try (Stream<Cryptocurrency> cryptos = cryptocurrencyRepository.streamAll()) {
+            int rows = writeCryptoWorkbook(cryptos.peek(entityManager::detach).iterator(), counted);
+            pipelineMetrics.recordExport(PipelineMetrics.CRYPTO, "xlsx", System.nanoTime() - startNanos, rows, counted.count);
+        }
+    }
 
+    int writeCryptoWorkbook(Iterator<Cryptocurrency> it, OutputStream out) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_ACCESS_WINDOW);
+        workbook.setCompressTempFiles(true);
+        try {
             Sheet sheet = workbook.createSheet("Cryptocurrencies");
-
-            Font headerFont = workbook.createFont();
-            headerFont.setBold(true);
-            headerFont.setFontHeightInPoints((short) 12);
-            CellStyle headerCellStyle = workbook.createCellStyle();
-            headerCellStyle.setFont(headerFont);
-            headerCellStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
-            headerCellStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-
-            Row headerRow = sheet.createRow(0);
-            for (int col = 0; col < CRYPTO_HEADERS.length; col++) {
-                Cell cell = headerRow.createCell(col);
-                cell.setCellValue(CRYPTO_HEADERS[col]);
-                cell.setCellStyle(headerCellStyle);
-            }
+            ColumnWidths widths = new ColumnWidths(CRYPTO_HEADERS);
+            writeHeaderRow(workbook, sheet, CRYPTO_HEADERS);
 
             CellStyle numberCellStyle = workbook.createCellStyle();
             DataFormat format = workbook.createDataFormat();
             numberCellStyle.setDataFormat(format.getFormat("#,##0.0000"));
 
             int rowIdx = 1;
-            for (Cryptocurrency crypto : cryptos) {
+            while (it.hasNext()) {
+                Cryptocurrency crypto = it.next();
                 Row row = sheet.createRow(rowIdx++);
 
-                row.createCell(0).setCellValue(crypto.getId());
-                row.createCell(1).setCellValue(crypto.getSymbol());
-                row.createCell(2).setCellValue(crypto.getName());
+                setCellValue(row.createCell(0), crypto.getId(), widths);
+                setCellValue(row.createCell(1), crypto.getSymbol(), widths);
+                setCellValue(row.createCell(2), crypto.getName(), widths);
                 if (crypto.getRank() != null) row.createCell(3).setCellValue(crypto.getRank());
                 else row.createCell(3).setBlank();
-                setCellValue(row.createCell(4), crypto.getPrice_usd(), numberCellStyle);
-                row.createCell(5).setCellValue(crypto.getPercent_change_1h());
-                row.createCell(6).setCellValue(crypto.getPercent_change_24h());
-                row.createCell(7).setCellValue(crypto.getPercent_change_7d());
-                setCellValue(row.createCell(8), crypto.getMarket_cap_usd(), numberCellStyle);
-                setCellValue(row.createCell(9), crypto.getVolume24(), numberCellStyle);
-                setCellValue(row.createCell(10), crypto.getVolume24a(), numberCellStyle);
-
-                row.createCell(11).setCellValue(crypto.getCsupply());
-                row.createCell(12).setCellValue(crypto.getTsupply());
-                row.createCell(13).setCellValue(crypto.getMsupply());
-
-            }
+                setCellValue(row.createCell(4), crypto.getPrice_usd(), numberCellStyle, widths);
+                setCellValue(row.createCell(5), crypto.getPercent_change_1h(), widths);
+                setCellValue(row.createCell(6), crypto.getPercent_change_24h(), widths);
+                setCellValue(row.createCell(7), crypto.getPercent_change_7d(), widths);
+                setCellValue(row.createCell(8), crypto.getMarket_cap_usd(), numberCellStyle, widths);
+                setCellValue(row.createCell(9), crypto.getVolume24(), numberCellStyle, widths);
+                setCellValue(row.createCell(10), crypto.getVolume24a(), numberCellStyle, widths);
 
-            for (int i = 0; i < CRYPTO_HEADERS.length; i++) {
-                sheet.autoSizeColumn(i);
+                setCellValue(row.createCell(11), crypto.getCsupply(), numberCellStyle, widths);
+                setCellValue(row.createCell(12), crypto.getTsupply(), numberCellStyle, widths);
+                setCellValue(row.createCell(13), crypto.getMsupply(), numberCellStyle, widths);
             }
 
+            widths.applyTo(sheet);
             workbook.write(out);
-            log.info("Excel дані успішно сформовані.");
-            return new ByteArrayInputStream(out.toByteArray());
+            log.info("Excel дані успішно сформовані ({} записів).", rowIdx - 1);
+            return rowIdx - 1;
         } catch (IOException e) {
             log.error("Помилка при генерації Excel файла: {}", e.getMessage(), e);
             throw e;
+        } finally {
+            workbook.dispose();
+            workbook.close();
         }
     }
 
-    private void setCellValue(Cell cell, BigDecimal value, CellStyle style) {
+    private void setCellValue(Cell cell, BigDecimal value, CellStyle style, ColumnWidths widths) {
         if (value != null) {
             cell.setCellValue(value.doubleValue());
             if (style != null) {
                 cell.setCellStyle(style);
             }
+            widths.track(cell.getColumnIndex(), value.toPlainString().length() + 4);
+        } else {
+            cell.setBlank();
+        }
+    }
+
+    private void setCellValue(Cell cell, Double value, ColumnWidths widths) {
+        if (value != null) {
+            cell.setCellValue(value);
+            widths.track(cell.getColumnIndex(), value.toString().length());
+        } else {
+            cell.setBlank();
+        }
+    }
+
+    private void setCellValue(Cell cell, String value, ColumnWidths widths) {
+        if (value != null) {
+            cell.setCellValue(value);
+            widths.track(cell.getColumnIndex(), value.length());
         } else {
             cell.setBlank();
         }
     }
 
+    private void writeHeaderRow(Workbook workbook, Sheet sheet, String[] headers) {
+        Font headerFont = workbook.createFont();
+        headerFont.setBold(true);
+        headerFont.setFontHeightInPoints((short) 12);
+        CellStyle headerCellStyle = workbook.createCellStyle();
+        headerCellStyle.setFont(headerFont);
+        headerCellStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
+        headerCellStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+
+        Row headerRow = sheet.createRow(0);
+        for (int col = 0; col < headers.length; col++) {
+            Cell cell = headerRow.createCell(col);
+            cell.setCellValue(headers[col]);
+            cell.setCellStyle(headerCellStyle);
+        }
+    }
+
+    private final static String[] CRYPTO_CSV_HEADERS = {
+            "id", "symbol", "name", "nameid", "rank", "price_usd", "percent_change_1h", "percent_change_24h", "percent_change_7d",
+            "market_cap_usd", "volume24", "volume24a", "csupply", "tsupply", "msupply"
+    };
+
+    private final static String[] MOVIE_CSV_HEADERS = {"id", "title", "release_year", "genres"};
+
     private final static String[] MOVIE_HEADERS = {"ID", "Title", "Year", "Genres"};
 
-    public ByteArrayInputStream generateMoviesExcel(Integer yearFrom, Integer yearTo) throws IOException {
+    public void writeMoviesExcel(Integer yearFrom, Integer yearTo, OutputStream out) throws IOException {
         log.info("Запит даних для генерації Excel фільмів за період {}-{}", yearFrom, yearTo);
-        List<Movie> movies = movieRepository.findByReleaseYearBetweenOrderByReleaseYearDescTitleAsc(yearFrom, yearTo);
+        List<Movie> movies = movieCache.findByYearRange(yearFrom, yearTo);
         log.info("Знайдено {} фільмів для експорту в Excel.", movies.size());
+        long startNanos = System.nanoTime();
+        CountingOutputStream counted = new CountingOutputStream(out);
+        int rows = writeMoviesWorkbook(movies, counted);
+        pipelineMetrics.recordExport(PipelineMetrics.MOVIES, "xlsx", System.nanoTime() - startNanos, rows, counted.count);
+    }
 
-        try (Workbook workbook = new XSSFWorkbook();
-             ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-
+    int writeMoviesWorkbook(List<Movie> movies, OutputStream out) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_ACCESS_WINDOW);
+        workbook.setCompressTempFiles(true);
+        try {
             Sheet sheet = workbook.createSheet("Movies");
-
-            Font headerFont = workbook.createFont();
-            headerFont.setBold(true);
-            headerFont.setFontHeightInPoints((short) 12);
-            CellStyle headerCellStyle = workbook.createCellStyle();
-            headerCellStyle.setFont(headerFont);
-            headerCellStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
-            headerCellStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-
-            Row headerRow = sheet.createRow(0);
-            for (int col = 0; col < MOVIE_HEADERS.length; col++) {
-                Cell cell = headerRow.createCell(col);
-                cell.setCellValue(MOVIE_HEADERS[col]);
-                cell.setCellStyle(headerCellStyle);
-            }
+            ColumnWidths widths = new ColumnWidths(MOVIE_HEADERS);
+            writeHeaderRow(workbook, sheet, MOVIE_HEADERS);
 
             int rowIdx = 1;
             for (Movie movie : movies) {
                 Row row = sheet.createRow(rowIdx++);
 
                 row.createCell(0).setCellValue(movie.getId());
-                row.createCell(1).setCellValue(movie.getTitle());
+                widths.track(0, String.valueOf(movie.getId()).length());
+                setCellValue(row.createCell(1), movie.getTitle(), widths);
                 if (movie.getReleaseYear() != null) {
                     row.createCell(2).setCellValue(movie.getReleaseYear());
                 } else {
                     row.createCell(2).setBlank();
                 }
-                if (movie.getGenres() != null) {
-                    row.createCell(3).setCellValue(movie.getGenres());
-                } else {
-                    row.createCell(3).setBlank();
-                }
-            }
-
-            for (int i = 0; i < MOVIE_HEADERS.length; i++) {
-                sheet.autoSizeColumn(i);
+                setCellValue(row.createCell(3), movie.getGenres(), widths);
             }
 
+            widths.applyTo(sheet);
             workbook.write(out);
             log.info("Excel дані для фільмів успішно сформовані.");
-            return new ByteArrayInputStream(out.toByteArray());
+            return rowIdx - 1;
         } catch (IOException e) {
             log.error("Помилка при генерації Excel файла фільмів: {}", e.getMessage(), e);
             throw e;
+        } finally {
+            workbook.dispose();
+            workbook.close();
         }
     }
 
-}
\ No newline at end of file
+    @Transactional(readOnly = true)
+    public void writeCryptoNdjson(OutputStream out) throws IOException {
+        long startNanos = System.nanoTime();
+        CountingOutputStream counted = new CountingOutputStream(out);
+        try (Stream<Cryptocurrency> cryptos = cryptocurrencyRepository.streamAllByRank()) {
+            int rows = writeNdjson(cryptos.iterator(), counted);
+            pipelineMetrics.recordExport(PipelineMetrics.CRYPTO, "ndjson", System.nanoTime() - startNanos, rows, counted.count);
+            log.debug("Передано {} тикерів у форматі NDJSON.", rows);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void writeMoviesNdjson(Integer yearFrom, Integer yearTo, OutputStream out) throws IOException {
+        long startNanos = System.nanoTime();
+        CountingOutputStream counted = new CountingOutputStream(out);
+        try (Stream<Movie> movies = movieRepository.streamByReleaseYearBetweenOrderByReleaseYearDescTitleAsc(yearFrom, yearTo)) {
+            int rows = writeNdjson(movies.iterator(), counted);
+            pipelineMetrics.recordExport(PipelineMetrics.MOVIES, "ndjson", System.nanoTime() - startNanos, rows, counted.count);
+            log.debug("Передано {} фільмів у форматі NDJSON за період {}-{}.", rows, yearFrom, yearTo);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void writeCryptoCsv(OutputStream out) throws IOException {
+        long startNanos = System.nanoTime();
+        CountingOutputStream counted = new CountingOutputStream(out);
+        try (Stream<Cryptocurrency> cryptos = cryptocurrencyRepository.streamAllByRank();
+             CSVPrinter csv = csvPrinter(counted, CRYPTO_CSV_HEADERS)) {
+            int rows = 0;
+            Iterator<Cryptocurrency> it = cryptos.iterator();
+            while (it.hasNext()) {
+                Cryptocurrency c = it.next();
+                csv.printRecord(c.getId(), c.getSymbol(), c.getName(), c.getNameid(), c.getRank(),
+                        plain(c.getPrice_usd()), c.getPercent_change_1h(), c.getPercent_change_24h(), c.getPercent_change_7d(),
+                        plain(c.getMarket_cap_usd()), plain(c.getVolume24()), plain(c.getVolume24a()),
+                        plain(c.getCsupply()), plain(c.getTsupply()), plain(c.getMsupply()));
+                entityManager.detach(c);
+                rows++;
+            }
+            csv.flush();
+            pipelineMetrics.recordExport(PipelineMetrics.CRYPTO, "csv", System.nanoTime() - startNanos, rows, counted.count);
+            log.debug("Передано {} тикерів у форматі CSV.", rows);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void writeMoviesCsv(Integer yearFrom, Integer yearTo, OutputStream out) throws IOException {
+        long startNanos = System.nanoTime();
+        CountingOutputStream counted = new CountingOutputStream(out);
+        try (Stream<Movie> movies = movieRepository.streamByReleaseYearBetweenOrderByReleaseYearDescTitleAsc(yearFrom, yearTo);
+             CSVPrinter csv = csvPrinter(counted, MOVIE_CSV_HEADERS)) {
+            int rows = 0;
+            Iterator<Movie> it = movies.iterator();
+            while (it.hasNext()) {
+                Movie movie = it.next();
+                csv.printRecord(movie.getId(), movie.getTitle(), movie.getReleaseYear(), movie.getGenres());
+                entityManager.detach(movie);
+                rows++;
+            }
+            csv.flush();
+            pipelineMetrics.recordExport(PipelineMetrics.MOVIES, "csv", System.nanoTime() - startNanos, rows, counted.count);
+            log.debug("Передано {} фільмів у форматі CSV за період {}-{}.", rows, yearFrom, yearTo);
+        }
+    }
+
+    private static CSVPrinter csvPrinter(OutputStream out, String[] headers) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), CSV_BUFFER_CHARS);
+        return new CSVPrinter(writer, CSVFormat.RFC4180.builder().setHeader(headers).build());
+    }
+
+    private static String plain(BigDecimal value) {
+        return value != null ? value.toPlainString() : null;
+    }
+
+    private int writeNdjson(Iterator<?> rows, OutputStream out) throws IOException {
+        int count = 0;
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            while (rows.hasNext()) {
+                Object row = rows.next();
+                writer.writeValue(generator, row);
+                generator.writeRaw('\n');
+                entityManager.detach(row);
+                if (++count % NDJSON_FLUSH_ROWS == 0) {
+                    generator.flush();
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Tracks the longest value per column while rows are written, so widths can be set
+     * without {@link Sheet#autoSizeColumn(int)}, which needs every row in memory.
+     */
+    private static final class ColumnWidths {
+        private final int[] maxChars;
+
+        ColumnWidths(String[] headers) {
+            maxChars = new int[headers.length];
+            for (int i = 0; i < headers.length; i++) {
+                maxChars[i] = headers[i].length() + 2;
+            }
+        }
+
+        void track(int column, int chars) {
+            if (chars > maxChars[column]) {
+                maxChars[column] = Math.min(chars, MAX_COLUMN_CHARS);
+            }
+        }
+
+        void applyTo(Sheet sheet) {
+            for (int i = 0; i < maxChars.length; i++) {
+                sheet.setColumnWidth(i, (maxChars[i] + 1) * 256);
+            }
+        }
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
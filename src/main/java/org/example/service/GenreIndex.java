@@ -0,0 +1,133 @@
+package org.example.service;
+
+import org.example.entity.Movie;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Genre dictionary plus an inverted index from genre to the {@link MovieCache} snapshot positions
+ * of the movies carrying it. Positions follow the snapshot order, so a year range is a contiguous
+ * run of bits. Genres are matched case-insensitively; the first spelling seen is the one reported.
+ */
+final class GenreIndex {
+
+    private final String[] names;
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final BitSet[] postings;
+
+    GenreIndex(Movie[] movies) {
+        List<String> spellings = new ArrayList<>();
+        List<BitSet> bitmaps = new ArrayList<>();
+        for (int position = 0; position < movies.length; position++) {
+            for (String genre : split(movies[position].getGenres())) {
+                String key = key(genre);
+                Integer id = ids.get(key);
+                if (id == null) {
+                    id = spellings.size();
+                    ids.put(key, id);
+                    spellings.add(genre);
+                    bitmaps.add(new BitSet(movies.length));
+                }
+                bitmaps.get(id).set(position);
+            }
+        }
+
+        names = spellings.toArray(new String[0]);
+        postings = bitmaps.toArray(new BitSet[0]);
+    }
+
+    /**
+     * Splits a comma-separated genre line into trimmed genres as written, dropping empties and
+     * case-insensitive duplicates.
+     */
+    static List<String> split(String genres) {
+        if (genres == null || genres.isBlank()) {
+            return List.of();
+        }
+        Map<String, String> unique = new LinkedHashMap<>();
+        for (String part : genres.split(",")) {
+            String genre = part.trim().replaceAll("\\s+", " ");
+            if (!genre.isEmpty()) {
+                unique.putIfAbsent(key(genre), genre);
+            }
+        }
+        return new ArrayList<>(unique.values());
+    }
+
+    /**
+     * Genre line as stored by the scraper: the page's spelling, joined with {@code ", "}.
+     */
+    static String normalize(String genres) {
+        return String.join(", ", split(genres));
+    }
+
+    int size() {
+        return names.length;
+    }
+
+    /**
+     * Positions in {@code [start, end)} carrying all ({@code matchAll}) or any of the given
+     * genre keys (see {@link #keys}). Unknown genres match nothing.
+     */
+    BitSet match(Set<String> genres, boolean matchAll, int start, int end) {
+        BitSet result = null;
+        for (String genre : genres) {
+            Integer id = ids.get(genre);
+            BitSet bits = id != null ? postings[id].get(start, end) : new BitSet();
+            if (result == null) {
+                result = bits;
+            } else if (matchAll) {
+                result.and(bits);
+            } else {
+                result.or(bits);
+            }
+        }
+        return result != null ? result : new BitSet();
+    }
+
+    /**
+     * Number of positions in {@code matched} (relative to {@code start}) per genre, most frequent first.
+     */
+    Map<String, Integer> counts(BitSet matched, int start, int end) {
+        List<Map.Entry<String, Integer>> entries = new ArrayList<>();
+        for (int id = 0; id < names.length; id++) {
+            BitSet bits = postings[id].get(start, end);
+            bits.and(matched);
+            int count = bits.cardinality();
+            if (count > 0) {
+                entries.add(Map.entry(names[id], count));
+            }
+        }
+        entries.sort(Map.Entry.<String, Integer>comparingByValue().reversed());
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> entry : entries) {
+            counts.put(entry.getKey(), entry.getValue());
+        }
+        return counts;
+    }
+
+    /**
+     * Lookup keys of a search request, each parameter possibly holding a comma-separated list.
+     */
+    static Set<String> keys(List<String> genres) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (String genre : genres) {
+            for (String name : split(genre)) {
+                keys.add(key(name));
+            }
+        }
+        return keys;
+    }
+
+    private static String key(String genre) {
+        return genre.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,131 @@
+package org.example.service;
+
+import jakarta.annotation.PreDestroy;
+import org.example.entity.dto.JobStatusDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * In-memory registry of background jobs. A job of a given type that is still running is reused
+ * instead of starting a second one; finished jobs are kept for {@code jobs.ttl-ms} so clients can
+ * fetch their result.
+ */
+@Service
+public class JobService {
+
+    private static final Logger log = LoggerFactory.getLogger(JobService.class);
+
+    public enum JobState {
+        RUNNING, SUCCEEDED, FAILED
+    }
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final Map<String, Job> runningByType = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Value("${jobs.ttl-ms:600000}")
+    private long ttlMillis;
+
+    public JobStatusDto submit(String type, Callable<?> task) {
+        return submitAsync(type, () -> CompletableFuture.supplyAsync(() -> {
+            try {
+                return task.call();
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, executor));
+    }
+
+    public JobStatusDto submitAsync(String type, Supplier<? extends CompletionStage<?>> task) {
+        Job[] created = new Job[1];
+        Job job = runningByType.computeIfAbsent(type, t -> created[0] = new Job(UUID.randomUUID().toString(), t));
+        if (created[0] == null) {
+            log.info("Задача типу '{}' вже виконується ({}), повертаємо її.", type, job.id);
+            return job.toDto();
+        }
+
+        jobs.put(job.id, job);
+        log.info("Запущено задачу {} типу '{}'.", job.id, type);
+        try {
+            task.get().whenComplete((result, error) -> finish(job, result, error));
+        } catch (RuntimeException e) {
+            finish(job, null, e);
+        }
+        return job.toDto();
+    }
+
+    public Optional<JobStatusDto> getStatus(String id) {
+        return Optional.ofNullable(jobs.get(id)).map(Job::toDto);
+    }
+
+    public Optional<Object> getResult(String id) {
+        Job job = jobs.get(id);
+        return job != null && job.state == JobState.SUCCEEDED ? Optional.ofNullable(job.result) : Optional.empty();
+    }
+
+    @Scheduled(fixedDelayString = "${jobs.cleanup-interval-ms:60000}")
+    public void evictExpired() {
+        Instant cutoff = Instant.now().minus(Duration.ofMillis(ttlMillis));
+        int before = jobs.size();
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+        if (jobs.size() < before) {
+            log.debug("Видалено {} завершених задач старших за {} мс.", before - jobs.size(), ttlMillis);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void finish(Job job, Object result, Throwable error) {
+        if (error != null) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            job.error = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+            job.state = JobState.FAILED;
+            log.error("Задача {} типу '{}' завершилась з помилкою: {}", job.id, job.type, job.error, cause);
+        } else {
+            job.result = result;
+            job.state = JobState.SUCCEEDED;
+            log.info("Задача {} типу '{}' завершена.", job.id, job.type);
+        }
+        job.finishedAt = Instant.now();
+        runningByType.remove(job.type, job);
+    }
+
+    private static final class Job {
+        private final String id;
+        private final String type;
+        private final Instant createdAt = Instant.now();
+        private volatile JobState state = JobState.RUNNING;
+        private volatile Instant finishedAt;
+        private volatile Object result;
+        private volatile String error;
+
+        Job(String id, String type) {
+            this.id = id;
+            this.type = type;
+        }
+
+        JobStatusDto toDto() {
+            return new JobStatusDto(id, type, state, createdAt, finishedAt, error);
+        }
+    }
+}
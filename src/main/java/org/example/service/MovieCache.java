@@ -0,0 +1,161 @@
+package org.example.service;
+
+import org.example.entity.Movie;
+import org.example.entity.dto.MovieCacheStatsDto;
+import org.example.entity.dto.MovieSearchResultDto;
+import org.example.event.MoviesChangedEvent;
+import org.example.repository.MovieRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-through cache of all movies, kept in the order {@code /api/movies/load} returns them
+ * (release year descending, then title), so any year range is a contiguous slice.
+ */
+@Component
+public class MovieCache {
+
+    private static final Logger log = LoggerFactory.getLogger(MovieCache.class);
+
+    private static final Sort MOVIE_ORDER = Sort.by(Sort.Order.desc("releaseYear"), Sort.Order.asc("title"), Sort.Order.asc("id"));
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    private volatile Snapshot snapshot;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong rebuilds = new AtomicLong();
+    private volatile long lastRebuildMillis;
+    private volatile Instant lastRebuildAt;
+
+    public List<Movie> findByYearRange(int yearFrom, int yearTo) {
+        Snapshot current = snapshot;
+        if (current != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+            current = loadSnapshot();
+        }
+        return current.range(yearFrom, yearTo);
+    }
+
+    /**
+     * Movies in the year range having all ({@code matchAll}) or any of the given genres, answered from
+     * the genre bitmaps of the current snapshot, with per-genre counts over the whole match.
+     */
+    public MovieSearchResultDto search(List<String> genres, boolean matchAll, int yearFrom, int yearTo, int limit) {
+        Snapshot current = snapshot;
+        if (current != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+            current = loadSnapshot();
+        }
+        return current.search(GenreIndex.keys(genres), matchAll, yearFrom, yearTo, limit);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onMoviesChanged(MoviesChangedEvent event) {
+        rebuild();
+    }
+
+    public synchronized void rebuild() {
+        long startNanos = System.nanoTime();
+        List<Movie> movies = movieRepository.findAll(MOVIE_ORDER);
+        snapshot = new Snapshot(movies.toArray(new Movie[0]));
+        lastRebuildMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        lastRebuildAt = Instant.now();
+        rebuilds.incrementAndGet();
+        log.info("Кеш фільмів перебудовано: {} фільмів за {} мс.", movies.size(), lastRebuildMillis);
+    }
+
+    public MovieCacheStatsDto getStats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long total = hitCount + missCount;
+        Snapshot current = snapshot;
+        return new MovieCacheStatsDto(hitCount, missCount, total > 0 ? (double) hitCount / total : 0.0,
+                current != null ? current.movies.length : 0, current != null ? current.genres.size() : 0,
+                rebuilds.get(), lastRebuildMillis, lastRebuildAt);
+    }
+
+    private synchronized Snapshot loadSnapshot() {
+        if (snapshot == null) {
+            rebuild();
+        }
+        return snapshot;
+    }
+
+    private static final class Snapshot {
+        private final Movie[] movies;
+        private final int[] years;
+        private final GenreIndex genres;
+
+        Snapshot(Movie[] movies) {
+            this.movies = movies;
+            this.years = new int[movies.length];
+            for (int i = 0; i < movies.length; i++) {
+                years[i] = movies[i].getReleaseYear();
+            }
+            this.genres = new GenreIndex(movies);
+        }
+
+        MovieSearchResultDto search(Set<String> genreKeys, boolean matchAll, int yearFrom, int yearTo, int limit) {
+            int start = firstIndexAtOrBelow(yearTo);
+            int end = firstIndexAtOrBelow(yearFrom - 1);
+            if (start >= end || genreKeys.isEmpty()) {
+                return new MovieSearchResultDto(0, List.of(), Map.of());
+            }
+
+            BitSet matched = genres.match(genreKeys, matchAll, start, end);
+            List<Movie> page = new ArrayList<>(Math.min(limit, matched.cardinality()));
+            for (int bit = matched.nextSetBit(0); bit >= 0 && page.size() < limit; bit = matched.nextSetBit(bit + 1)) {
+                page.add(movies[start + bit]);
+            }
+            return new MovieSearchResultDto(matched.cardinality(), page, genres.counts(matched, start, end));
+        }
+
+        List<Movie> range(int yearFrom, int yearTo) {
+            int start = firstIndexAtOrBelow(yearTo);
+            int end = firstIndexAtOrBelow(yearFrom - 1);
+            if (start >= end) {
+                return List.of();
+            }
+            return Collections.unmodifiableList(Arrays.asList(movies).subList(start, end));
+        }
+
+        private int firstIndexAtOrBelow(int year) {
+            int low = 0;
+            int high = years.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (years[mid] > year) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -1,22 +1,58 @@
 package org.example.service;
 
+import io.micrometer.core.instrument.Timer;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpUtil;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.example.entity.Movie;
+import org.example.entity.dto.KeysetPageDto;
+import org.example.entity.dto.ScrapedMovieDto;
+import org.example.event.MoviesChangedEvent;
+import org.example.http.CircuitOpenException;
+import org.example.http.OutboundGovernor;
+import org.example.http.UpstreamStatusException;
 import org.example.repository.MovieRepository;
+import org.hibernate.Session;
+import org.hibernate.SessionEventListener;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
+import org.jsoup.parser.Parser;
+import org.jsoup.parser.StreamParser;
 import org.jsoup.select.Elements;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.QueryParser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.Exceptions;
+import reactor.netty.http.client.HttpClient;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -24,81 +60,462 @@ import java.util.regex.Pattern;
 public class MovieScraperService {
 
     private static final Logger log = LoggerFactory.getLogger(MovieScraperService.class);
-    private static final String BASE_URL = "https://ua.hdrezka.fm/f/cat=352/r-rating_kinopoisk=1;10/r-year=1925;2025/order_by=rating_kinopoisk/order=desc";
-    private static final int TOTAL_PAGES = 10;
+    private static final String USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/123.0.0.0 Safari/537.36";
 
     private static final String MOVIE_ITEM_SELECTOR = "div.postItem";
     private static final String TITLE_SELECTOR = "div.postItem div.postitem-title a";
     private static final String INFO_SELECTOR = "div.postItem div.postItem-title span.misc";
 
+    private static final Evaluator MOVIE_ITEM = QueryParser.parse(MOVIE_ITEM_SELECTOR);
+    private static final Evaluator ITEM_TITLE = QueryParser.parse("div.postitem-title a");
+    private static final Evaluator ITEM_INFO = QueryParser.parse("div.postItem-title span.misc");
+
     private static final Pattern YEAR_PATTERN = Pattern.compile("\\b(\\d{4})\\b");
 
     @Autowired
     private MovieRepository movieRepository;
 
-    @Transactional
+    @Autowired
+    private MovieCache movieCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${scraper.movies.base-url}")
+    private String baseUrl;
+
+    @Value("${scraper.movies.total-pages:10}")
+    private int totalPages;
+
+    @Value("${scraper.movies.concurrent:true}")
+    private boolean concurrent;
+
+    @Value("${scraper.movies.concurrency:4}")
+    private int concurrency;
+
+    @Value("${scraper.movies.timeout-ms:20000}")
+    private int timeoutMs;
+
+    @Value("${scraper.movies.extraction:stream}")
+    private String extraction;
+
+    @Value("${scraper.movies.cache.enabled:true}")
+    private boolean cacheEnabled;
+
+    @Value("${scraper.movies.incremental:false}")
+    private boolean incremental;
+
+    @Value("${scraper.movies.offline:false}")
+    private boolean offline;
+
+    @Autowired
+    private PageCache pageCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
+
+    @Autowired
+    private OutboundGovernor outboundGovernor;
+
+    @Autowired
+    private HttpClient httpClient;
+
+    private final SingleFlight<List<Movie>> scrapeFlight = new SingleFlight<>();
+
+    /**
+     * Scrapes and upserts the configured pages. Callers arriving while a scrape is already running
+     * wait for that run and get its result instead of starting their own.
+     */
     public List<Movie> scrapeAndSaveMovies() {
-        log.info("Запуск скрапінга фільмів з перших {} сторінок: {}", TOTAL_PAGES, BASE_URL);
-        List<Movie> savedOrUpdatedMovies = new ArrayList<>();
+        if (scrapeFlight.isInFlight()) {
+            log.info("Скрапінг уже виконується, очікуємо його результат.");
+        }
+        try {
+            return scrapeFlight.submit(() -> CompletableFuture.completedFuture(scrapeOnce())).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
 
-        for (int page = 1; page <= TOTAL_PAGES; page++) {
-            String pageUrl = BASE_URL + (page > 1 ? "/page/" + page + "/" : "/");
-            log.info("Скрапінг сторінки: {}", pageUrl);
+    /**
+     * Fetches pages in waves of {@code concurrency} pages (one wave of all pages unless incremental)
+     * and upserts each wave in its own transaction. Pages the cache reports as unchanged skip parsing
+     * and the database; in incremental mode the crawl stops after the first wave containing a page
+     * with nothing new. The page cache outlives the database (in-memory or recreated), so while the
+     * movies table is empty nothing is skipped and every page is parsed and saved.
+     */
+    private List<Movie> scrapeOnce() {
+        log.info("Запуск скрапінга фільмів з перших {} сторінок ({}{}{}): {}",
+                totalPages, concurrent ? "паралельно, до " + concurrency + " запитів" : "послідовно",
+                incremental ? ", інкрементально" : "", offline ? ", офлайн з кешу" : "", baseUrl);
+        long startNanos = System.nanoTime();
+        int waveSize = incremental ? Math.max(1, concurrency) : totalPages;
+        boolean skipUnchanged = cacheEnabled && movieRepository.count() > 0;
+        if (cacheEnabled && !skipUnchanged) {
+            log.info("Таблиця фільмів порожня: кеш сторінок не використовується для пропуску, всі сторінки буде розібрано.");
+        }
 
+        List<Movie> savedOrUpdatedMovies = new ArrayList<>();
+        int fetched = 0;
+        int unchanged = 0;
+        for (int first = 1; first <= totalPages; first += waveSize) {
+            int last = Math.min(totalPages, first + waveSize - 1);
+            List<ScrapedPage> pages = concurrent ? fetchPagesConcurrently(first, last, skipUnchanged) : fetchPagesSequentially(first, last, skipUnchanged);
+            fetched += pages.size();
+            unchanged += (int) pages.stream().filter(ScrapedPage::unchanged).count();
+
+            WaveResult wave;
             try {
-                Document doc = Jsoup.connect(pageUrl).userAgent("Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/123.0.0.0 Safari/537.36").timeout(20000).get();
-                Elements movieItems = doc.select(MOVIE_ITEM_SELECTOR);
-                log.info("Знайдено {} елементів фільмів на сторінці {}.", movieItems.size(), page);
+                wave = pipelineMetrics.recordDbWrite(PipelineMetrics.MOVIES, () -> transactionTemplate.execute(status -> savePages(pages)));
+            } catch (RuntimeException e) {
+                // The bodies are already cached; forget them so the next run does not treat these pages as unchanged.
+                pages.forEach(page -> pageCache.evict(pageUrl(page.page())));
+                throw e;
+            }
+            savedOrUpdatedMovies.addAll(wave.movies());
+            if (incremental && wave.reachedKnownPage()) {
+                log.info("Інкрементальний скрапінг зупинено на сторінці {}: далі лише відомі фільми без змін.", last);
+                break;
+            }
+        }
 
-                for (Element item : movieItems) {
+        long elapsedMillis = Math.max(1, (System.nanoTime() - startNanos) / 1_000_000);
+        log.info("Завантажено {} сторінок ({} без змін) за {} мс ({} стор./с). Оброблено (збережено/оновлено/знайдено) {} фільмів.",
+                fetched, unchanged, elapsedMillis, String.format("%.2f", fetched * 1000.0 / elapsedMillis), savedOrUpdatedMovies.size());
+        return savedOrUpdatedMovies;
+    }
+
+    private WaveResult savePages(List<ScrapedPage> pages) {
+        StatementCounter statements = new StatementCounter();
+        entityManager.unwrap(Session.class).addEventListeners(statements);
+
+        List<Movie> savedOrUpdatedMovies = new ArrayList<>();
+        List<Movie> changedMovies = new ArrayList<>();
+        boolean reachedKnownPage = false;
+        for (ScrapedPage page : pages) {
+            if (page.unchanged()) {
+                reachedKnownPage = true;
+                continue;
+            }
+            PageUpsert upsert = upsertPage(page.movies());
+            savedOrUpdatedMovies.addAll(upsert.movies());
+            changedMovies.addAll(upsert.changed());
+            if (!page.movies().isEmpty() && upsert.changed().isEmpty()) {
+                reachedKnownPage = true;
+            }
+        }
+        if (changedMovies.isEmpty()) {
+            return new WaveResult(savedOrUpdatedMovies, reachedKnownPage);
+        }
+        movieRepository.flush();
+        eventPublisher.publishEvent(new MoviesChangedEvent(changedMovies));
+
+        log.info("Збережено хвилю сторінок: {} нових чи змінених з {} фільмів; виконано {} SQL-запитів ({} JDBC-пакетів).",
+                changedMovies.size(), savedOrUpdatedMovies.size(), statements.prepared, statements.batches);
+        return new WaveResult(savedOrUpdatedMovies, reachedKnownPage);
+    }
+
+    private PageUpsert upsertPage(List<ScrapedMovieDto> pageMovies) {
+        if (pageMovies.isEmpty()) {
+            return new PageUpsert(List.of(), List.of());
+        }
+
+        Set<String> titles = new HashSet<>();
+        for (ScrapedMovieDto scraped : pageMovies) {
+            titles.add(scraped.title());
+        }
+        Map<MovieKey, Movie> existingMovies = new HashMap<>();
+        for (Movie movie : movieRepository.findByTitleIn(titles)) {
+            existingMovies.put(new MovieKey(movie.getTitle(), movie.getReleaseYear()), movie);
+        }
+
+        List<Movie> pageResult = new ArrayList<>(pageMovies.size());
+        List<Movie> newMovies = new ArrayList<>();
+        List<Movie> changed = new ArrayList<>();
+        for (ScrapedMovieDto scraped : pageMovies) {
+            MovieKey key = new MovieKey(scraped.title(), scraped.releaseYear());
+            Movie movie = existingMovies.get(key);
+
+            if (movie == null) {
+                log.debug("Знайдено новий фільм: '{}' ({})", scraped.title(), scraped.releaseYear());
+                movie = new Movie(scraped.title(), scraped.releaseYear(), scraped.genres());
+                existingMovies.put(key, movie);
+                newMovies.add(movie);
+                changed.add(movie);
+            } else if (!Objects.equals(movie.getGenres(), scraped.genres())) {
+                log.debug("Оновлення жанрів для фільма: '{}' ({})", scraped.title(), scraped.releaseYear());
+                movie.setGenres(scraped.genres());
+                changed.add(movie);
+            }
+            pageResult.add(movie);
+        }
+
+        movieRepository.saveAll(newMovies);
+        int updated = changed.size() - newMovies.size();
+        pipelineMetrics.recordRows(PipelineMetrics.MOVIES, newMovies.size(), updated, pageResult.size() - changed.size());
+        return new PageUpsert(pageResult, changed);
+    }
+
+    private List<ScrapedPage> fetchPagesSequentially(int first, int last, boolean skipUnchanged) {
+        List<ScrapedPage> pages = new ArrayList<>(last - first + 1);
+        for (int page = first; page <= last; page++) {
+            pages.add(fetchAndParsePage(page, skipUnchanged));
+        }
+        return pages;
+    }
+
+    private List<ScrapedPage> fetchPagesConcurrently(int first, int last, boolean skipUnchanged) {
+        Semaphore permits = new Semaphore(Math.max(1, concurrency));
+        List<Future<ScrapedPage>> futures = new ArrayList<>(last - first + 1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int page = first; page <= last; page++) {
+                int pageNumber = page;
+                futures.add(executor.submit(() -> {
+                    permits.acquire();
                     try {
-                        String title = Objects.requireNonNull(item.selectFirst(TITLE_SELECTOR)).text();
-                        String infoLine = Objects.requireNonNull(item.selectFirst(INFO_SELECTOR)).text();
-
-                        Integer year = parseYear(infoLine);
-                        String genres = parseGenres(infoLine);
-
-                        if (!title.isEmpty() && year != null && genres != null && !genres.isEmpty()) {
-                            Optional<Movie> existingMovieOpt = movieRepository.findByTitle(title);
-
-                            if (existingMovieOpt.isPresent()) {
-                                Movie existingMovie = existingMovieOpt.get();
-                                if (!Objects.equals(existingMovie.getGenres(), genres)) {
-                                    log.debug("Оновлення жанрів для фільма: '{}' ({})", title, year);
-                                    existingMovie.setGenres(genres);
-                                    savedOrUpdatedMovies.add(movieRepository.save(existingMovie));
-                                } else {
-                                    savedOrUpdatedMovies.add(existingMovie);
-                                }
-                            } else {
-                                log.debug("Знайдено новий фільм: '{}' ({})", title, year);
-                                Movie newMovie = new Movie(title, year, genres);
-                                savedOrUpdatedMovies.add(movieRepository.save(newMovie));
-                            }
-                        } else {
-                            log.warn("Не вдалося знайти назву, рік або жанри для одного з елементів на сторінці {}.", page);
-                        }
-                    } catch (Exception e) {
-                        log.error("Помилка під час парсингу елемента фільма на сторінці {}: {}", page, e.getMessage());
+                        return fetchAndParsePage(pageNumber, skipUnchanged);
+                    } finally {
+                        permits.release();
                     }
+                }));
+            }
+
+            List<ScrapedPage> pages = new ArrayList<>(futures.size());
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    pages.add(futures.get(i).get());
+                } catch (ExecutionException e) {
+                    log.error("Помилка під час обробки сторінки {}: {}", first + i, e.getCause().getMessage(), e.getCause());
+                    pages.add(ScrapedPage.failed(first + i));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    log.warn("Скрапінг перервано на сторінці {}.", first + i);
+                    break;
                 }
+            }
+            return pages;
+        }
+    }
 
-            } catch (IOException e) {
-                log.error("Помилка при підключенні або зчитуванні URL {}: {}", pageUrl, e.getMessage(), e);
+    private String pageUrl(int page) {
+        return baseUrl + (page > 1 ? "/page/" + page + "/" : "/");
+    }
+
+    /**
+     * With {@code skipUnchanged} off the cached validators are not sent and an identical body is still
+     * parsed, so a page is only reported unchanged when its movies can already be in the database.
+     */
+    private ScrapedPage fetchAndParsePage(int page, boolean skipUnchanged) {
+        String pageUrl = pageUrl(page);
+        Optional<PageCache.CachedPage> cached = (cacheEnabled || offline) ? pageCache.get(pageUrl) : Optional.empty();
+
+        if (offline) {
+            if (cached.isEmpty()) {
+                log.warn("Офлайн-режим: сторінки {} немає в кеші.", pageUrl);
+                return ScrapedPage.failed(page);
             }
+            log.info("Скрапінг сторінки з кешу: {}", pageUrl);
+            return new ScrapedPage(page, parse(cached.get().body(), pageUrl, page), false);
         }
 
-        log.info("Скрапінг завершено. Оброблено (збережено/оновлено/знайдено) {} фільмів", savedOrUpdatedMovies.size());
-        return savedOrUpdatedMovies;
+        log.info("Скрапінг сторінки: {}", pageUrl);
+        Optional<PageCache.CachedPage> validators = skipUnchanged ? cached : Optional.empty();
+        Timer.Sample request = pipelineMetrics.startTimer();
+        try {
+            FetchedPage response = outboundGovernor.execute(OutboundGovernor.hostOf(pageUrl), () -> {
+                FetchedPage attempt = fetch(pageUrl, validators);
+                if (attempt.statusCode() == 429 || attempt.statusCode() >= 500) {
+                    throw new UpstreamStatusException(pageUrl, attempt.statusCode(), attempt.header("Retry-After"));
+                }
+                return attempt;
+            });
+
+            if (response.statusCode() == 304 && validators.isPresent()) {
+                pipelineMetrics.recordUpstream(PipelineMetrics.MOVIES, request, true);
+                log.info("Сторінка {} не змінилась (304), парсинг пропущено.", page);
+                return ScrapedPage.unchanged(page);
+            }
+            if (response.statusCode() >= 400) {
+                pipelineMetrics.recordUpstream(PipelineMetrics.MOVIES, request, false);
+                log.error("Помилка HTTP {} при зчитуванні URL {}", response.statusCode(), pageUrl);
+                return ScrapedPage.failed(page);
+            }
+            pipelineMetrics.recordUpstream(PipelineMetrics.MOVIES, request, true);
+
+            String body = response.body();
+            if (cacheEnabled) {
+                PageCache.CachedPage stored = pageCache.put(pageUrl, body, response.header("ETag"), response.header("Last-Modified"), cached);
+                if (validators.isPresent() && stored.contentHash().equals(validators.get().contentHash())) {
+                    log.info("Вміст сторінки {} не змінився, парсинг пропущено.", page);
+                    return ScrapedPage.unchanged(page);
+                }
+            }
+            return new ScrapedPage(page, parse(body, pageUrl, page), false);
+        } catch (CircuitOpenException e) {
+            pipelineMetrics.recordUpstream(PipelineMetrics.MOVIES, request, false);
+            log.warn("Сторінку {} пропущено: {}", page, e.getMessage());
+            return ScrapedPage.failed(page);
+        } catch (IOException e) {
+            pipelineMetrics.recordUpstream(PipelineMetrics.MOVIES, request, false);
+            log.error("Помилка при підключенні або зчитуванні URL {}: {}", pageUrl, e.getMessage(), e);
+            return ScrapedPage.failed(page);
+        }
+    }
+
+    /**
+     * Conditional GET through the shared pooled client, so consecutive pages reuse kept-alive
+     * connections instead of opening one per page.
+     */
+    private FetchedPage fetch(String pageUrl, Optional<PageCache.CachedPage> cached) throws IOException {
+        try {
+            return httpClient
+                    .headers(headers -> {
+                        headers.set(HttpHeaderNames.USER_AGENT, USER_AGENT);
+                        cached.ifPresent(previous -> {
+                            if (previous.etag() != null) {
+                                headers.set(HttpHeaderNames.IF_NONE_MATCH, previous.etag());
+                            }
+                            if (previous.lastModified() != null) {
+                                headers.set(HttpHeaderNames.IF_MODIFIED_SINCE, previous.lastModified());
+                            }
+                        });
+                    })
+                    .responseTimeout(Duration.ofMillis(timeoutMs))
+                    .get()
+                    .uri(pageUrl)
+                    .responseSingle((response, body) -> body.asByteArray()
+                            .defaultIfEmpty(new byte[0])
+                            .map(bytes -> {
+                                String contentType = response.responseHeaders().get(HttpHeaderNames.CONTENT_TYPE);
+                                String html = new String(bytes, HttpUtil.getCharset(contentType, StandardCharsets.UTF_8));
+                                return new FetchedPage(response.status().code(), html, response.responseHeaders());
+                            }))
+                    .block();
+        } catch (RuntimeException e) {
+            Throwable cause = Exceptions.unwrap(e);
+            throw cause instanceof IOException io ? io : new IOException(cause.getMessage(), cause);
+        }
+    }
+
+    private List<ScrapedMovieDto> parse(String html, String pageUrl, int page) {
+        long parseStart = System.nanoTime();
+        List<ScrapedMovieDto> movies = "dom".equalsIgnoreCase(extraction)
+                ? parsePage(Jsoup.parse(html, pageUrl), page)
+                : streamPage(html, pageUrl, page);
+        pipelineMetrics.recordParse(PipelineMetrics.MOVIES, System.nanoTime() - parseStart);
+        return movies;
+    }
+
+    List<ScrapedMovieDto> parsePage(Document doc, int page) {
+        Elements movieItems = doc.select(MOVIE_ITEM_SELECTOR);
+        log.info("Знайдено {} елементів фільмів на сторінці {}.", movieItems.size(), page);
+
+        List<ScrapedMovieDto> movies = new ArrayList<>(movieItems.size());
+        int failures = 0;
+        for (Element item : movieItems) {
+            try {
+                String title = Objects.requireNonNull(item.selectFirst(TITLE_SELECTOR)).text();
+                String infoLine = Objects.requireNonNull(item.selectFirst(INFO_SELECTOR)).text();
+
+                Integer year = parseYear(infoLine);
+                String genres = parseGenres(infoLine);
+
+                if (!title.isEmpty() && year != null && genres != null && !genres.isEmpty()) {
+                    movies.add(new ScrapedMovieDto(title, year, genres));
+                } else {
+                    failures++;
+                    log.warn("Не вдалося знайти назву, рік або жанри для одного з елементів на сторінці {}.", page);
+                }
+            } catch (Exception e) {
+                failures++;
+                log.error("Помилка під час парсингу елемента фільма на сторінці {}: {}", page, e.getMessage());
+            }
+        }
+        if (failures > 0) {
+            pipelineMetrics.recordParseFailures(PipelineMetrics.MOVIES, failures);
+        }
+        return movies;
     }
 
     public List<Movie> getMovies(Integer yearFrom, Integer yearTo) {
         log.info("Запит фільмів з БД за період з {} по {}", yearFrom, yearTo);
-        return movieRepository.findByReleaseYearBetweenOrderByReleaseYearDescTitleAsc(yearFrom, yearTo);
+        return movieCache.findByYearRange(yearFrom, yearTo);
+    }
+
+
+    public KeysetPageDto<Movie> getMoviesPage(Integer yearFrom, Integer yearTo, String cursor, int limit) {
+        List<Movie> movies;
+        if (cursor == null || cursor.isEmpty()) {
+            movies = movieRepository.findByReleaseYearBetweenOrderByReleaseYearDescTitleAscIdAsc(yearFrom, yearTo, Limit.of(limit));
+        } else {
+            MovieCursor after = MovieCursor.decode(cursor);
+            movies = movieRepository.findPageAfter(yearFrom, yearTo, after.releaseYear(), after.title(), after.id(), Limit.of(limit));
+        }
+
+        String nextCursor = movies.size() == limit ? MovieCursor.of(movies.get(movies.size() - 1)).encode() : null;
+        return new KeysetPageDto<>(movies, nextCursor);
     }
 
+    /**
+     * Same movies as {@link #parsePage}, but pulls each {@code postItem} out of a streaming parse and
+     * drops it once read, so the full DOM is never built. Items come out as they complete, so where
+     * broken markup nests one item in another the inner one is listed first. Selectors are pre-compiled and relative to
+     * the item, and the info line is matched once for both year and genres.
+     */
+    List<ScrapedMovieDto> streamPage(String html, String baseUri, int page) {
+        List<ScrapedMovieDto> movies = new ArrayList<>();
+        int items = 0;
+        int failures = 0;
+        try (StreamParser parser = new StreamParser(Parser.htmlParser()).parse(html, baseUri)) {
+            Element item;
+            while ((item = parser.selectNext(MOVIE_ITEM)) != null) {
+                items++;
+                ScrapedMovieDto movie = extractItem(item);
+                item.remove();
+                if (movie != null) {
+                    movies.add(movie);
+                } else {
+                    failures++;
+                    log.warn("Не вдалося знайти назву, рік або жанри для одного з елементів на сторінці {}.", page);
+                }
+            }
+        } catch (IOException e) {
+            log.error("Помилка під час потокового парсингу сторінки {}: {}", page, e.getMessage());
+        }
+        log.info("Знайдено {} елементів фільмів на сторінці {}.", items, page);
+        if (failures > 0) {
+            pipelineMetrics.recordParseFailures(PipelineMetrics.MOVIES, failures);
+        }
+        return movies;
+    }
+
+    private ScrapedMovieDto extractItem(Element item) {
+        Element titleLink = item.selectFirst(ITEM_TITLE);
+        Element info = item.selectFirst(ITEM_INFO);
+        if (titleLink == null || info == null) {
+            return null;
+        }
+        String title = titleLink.text();
+        String infoLine = info.text();
+        Matcher matcher = YEAR_PATTERN.matcher(infoLine);
+        if (title.isEmpty() || !matcher.find()) {
+            return null;
+        }
+        String genres = GenreIndex.normalize(infoLine.substring(matcher.end()));
+        return genres.isEmpty() ? null : new ScrapedMovieDto(title, Integer.parseInt(matcher.group(1)), genres);
+    }
 
-    private Integer parseYear(String infoLine) {
+    Integer parseYear(String infoLine) {
         if (infoLine == null || infoLine.isEmpty()) {
             return null;
         }
@@ -114,7 +531,7 @@ public class MovieScraperService {
         return null;
     }
 
-    private String parseGenres(String infoLine) {
+    String parseGenres(String infoLine) {
         if (infoLine == null || infoLine.isEmpty()) {
             return null;
         }
@@ -123,11 +540,82 @@ public class MovieScraperService {
         if (matcher.find()) {
             int yearEndIndex = matcher.end();
             String genres = infoLine.substring(yearEndIndex).trim();
-            if (genres.startsWith(",")) {
-                genres = genres.substring(1).trim();
-            }
-            return genres;
+            return GenreIndex.normalize(genres);
         }
         return null;
     }
-}
\ No newline at end of file
+
+    private record MovieKey(String title, Integer releaseYear) {
+    }
+
+    /**
+     * One fetched listing page; {@code unchanged} pages were not parsed because the cache proved them identical.
+     */
+    private record ScrapedPage(int page, List<ScrapedMovieDto> movies, boolean unchanged) {
+        static ScrapedPage unchanged(int page) {
+            return new ScrapedPage(page, List.of(), true);
+        }
+
+        static ScrapedPage failed(int page) {
+            return new ScrapedPage(page, List.of(), false);
+        }
+    }
+
+    private record FetchedPage(int statusCode, String body, io.netty.handler.codec.http.HttpHeaders headers) {
+
+        String header(String name) {
+            return headers.get(name);
+        }
+    }
+
+    /**
+     * {@code movies} is every movie on the page; {@code changed} only the inserted and updated ones.
+     */
+    private record PageUpsert(List<Movie> movies, List<Movie> changed) {
+    }
+
+    private record WaveResult(List<Movie> movies, boolean reachedKnownPage) {
+    }
+
+    /**
+     * Position after the last row of a page in (releaseYear desc, title, id) order, passed to clients as an opaque token.
+     */
+    private record MovieCursor(Integer releaseYear, Long id, String title) {
+
+        static MovieCursor of(Movie movie) {
+            return new MovieCursor(movie.getReleaseYear(), movie.getId(), movie.getTitle());
+        }
+
+        static MovieCursor decode(String cursor) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 3);
+                return new MovieCursor(Integer.valueOf(parts[0]), Long.valueOf(parts[1]), parts[2]);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Некоректний курсор: " + cursor, e);
+            }
+        }
+
+        String encode() {
+            String raw = releaseYear + "|" + id + "|" + title;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Counts the JDBC statements a session prepares; a batched insert or update is prepared once per batch.
+     */
+    private static final class StatementCounter implements SessionEventListener {
+        private int prepared;
+        private int batches;
+
+        @Override
+        public void jdbcPrepareStatementStart() {
+            prepared++;
+        }
+
+        @Override
+        public void jdbcExecuteBatchStart() {
+            batches++;
+        }
+    }
+}
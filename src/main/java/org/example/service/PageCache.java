@@ -0,0 +1,130 @@
+package org.example.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Raw listing-page bodies on disk, gzip-compressed, with a SHA-256 of the body and the
+ * {@code ETag}/{@code Last-Modified} validators the server sent. Used for conditional requests,
+ * to skip pages whose content has not changed, and as the source for offline replay.
+ */
+@Component
+public class PageCache {
+
+    private static final Logger log = LoggerFactory.getLogger(PageCache.class);
+
+    private final Path directory;
+
+    public PageCache(@Value("${scraper.movies.cache.dir:page-cache}") String directory) {
+        this.directory = Path.of(directory);
+    }
+
+    public record CachedPage(String url, String body, String contentHash, String etag, String lastModified, Instant fetchedAt) {
+    }
+
+    public Optional<CachedPage> get(String url) {
+        String key = key(url);
+        Path meta = directory.resolve(key + ".properties");
+        Path body = directory.resolve(key + ".html.gz");
+        if (!Files.exists(meta) || !Files.exists(body)) {
+            return Optional.empty();
+        }
+        try {
+            Properties properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(meta, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            }
+            String html;
+            try (InputStream in = new GZIPInputStream(Files.newInputStream(body))) {
+                html = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            return Optional.of(new CachedPage(url, html, properties.getProperty("contentHash"),
+                    properties.getProperty("etag"), properties.getProperty("lastModified"),
+                    Instant.parse(properties.getProperty("fetchedAt"))));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Не вдалося прочитати кешовану сторінку {}: {}", url, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Stores a fetched body and its validators, replacing any previous entry. The body is written
+     * only when its hash differs from the cached one.
+     */
+    public CachedPage put(String url, String body, String etag, String lastModified, Optional<CachedPage> previous) {
+        CachedPage page = new CachedPage(url, body, hash(body), etag, lastModified, Instant.now());
+        String key = key(url);
+        try {
+            Files.createDirectories(directory);
+            if (previous.isEmpty() || !page.contentHash().equals(previous.get().contentHash())) {
+                Path tmp = Files.createTempFile(directory, key, ".tmp");
+                try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(tmp))) {
+                    out.write(body.getBytes(StandardCharsets.UTF_8));
+                }
+                Files.move(tmp, directory.resolve(key + ".html.gz"), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+
+            Properties properties = new Properties();
+            properties.setProperty("url", url);
+            properties.setProperty("contentHash", page.contentHash());
+            properties.setProperty("fetchedAt", page.fetchedAt().toString());
+            if (etag != null) {
+                properties.setProperty("etag", etag);
+            }
+            if (lastModified != null) {
+                properties.setProperty("lastModified", lastModified);
+            }
+            Path tmp = Files.createTempFile(directory, key, ".tmp");
+            try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                properties.store(writer, null);
+            }
+            Files.move(tmp, directory.resolve(key + ".properties"), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Не вдалося зберегти сторінку {} у кеш: {}", url, e.getMessage());
+        }
+        return page;
+    }
+
+    public void evict(String url) {
+        String key = key(url);
+        try {
+            Files.deleteIfExists(directory.resolve(key + ".properties"));
+            Files.deleteIfExists(directory.resolve(key + ".html.gz"));
+        } catch (IOException e) {
+            log.warn("Не вдалося видалити сторінку {} з кешу: {}", url, e.getMessage());
+        }
+    }
+
+    static String hash(String body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(body.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String key(String url) {
+        return hash(url).substring(0, 32);
+    }
+}
@@ -0,0 +1,88 @@
+package org.example.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Meter names and tags for the ingestion and export pipelines, kept in one place so dashboards
+ * have a single source of truth. Everything is published through the actuator Prometheus endpoint.
+ */
+@Component
+public class PipelineMetrics {
+
+    public static final String CRYPTO = "crypto";
+    public static final String MOVIES = "movies";
+
+    private final MeterRegistry registry;
+
+    public PipelineMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public Timer.Sample startTimer() {
+        return Timer.start(registry);
+    }
+
+    /**
+     * Latency of one upstream request (a CoinLore page or a listing page).
+     */
+    public void recordUpstream(String source, Timer.Sample sample, boolean success) {
+        sample.stop(Timer.builder("pipeline.upstream.request")
+                .description("Upstream HTTP request latency per page")
+                .tag("source", source)
+                .tag("outcome", success ? "success" : "error")
+                .publishPercentileHistogram()
+                .register(registry));
+    }
+
+    public void recordParse(String source, long nanos) {
+        Timer.builder("pipeline.parse")
+                .description("Time to parse one upstream page")
+                .tag("source", source)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordParseFailures(String source, int failures) {
+        registry.counter("pipeline.parse.failures", "source", source).increment(failures);
+    }
+
+    public void recordRows(String dataset, int inserted, int updated, int unchanged) {
+        registry.counter("pipeline.rows", "dataset", dataset, "result", "inserted").increment(inserted);
+        registry.counter("pipeline.rows", "dataset", dataset, "result", "updated").increment(updated);
+        registry.counter("pipeline.rows", "dataset", dataset, "result", "unchanged").increment(unchanged);
+    }
+
+    public <T> T recordDbWrite(String dataset, Supplier<T> write) {
+        return Timer.builder("pipeline.db.write")
+                .description("Time spent writing one ingestion chunk, including commit")
+                .tag("dataset", dataset)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(write);
+    }
+
+    public void recordExport(String dataset, String format, long nanos, long rows, long bytes) {
+        Timer.builder("pipeline.export")
+                .description("Export generation time")
+                .tags("dataset", dataset, "format", format)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("pipeline.export.rows")
+                .tags("dataset", dataset, "format", format)
+                .register(registry)
+                .record(rows);
+        DistributionSummary.builder("pipeline.export.size")
+                .baseUnit("bytes")
+                .tags("dataset", dataset, "format", format)
+                .register(registry)
+                .record(bytes);
+    }
+}
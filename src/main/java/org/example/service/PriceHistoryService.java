@@ -0,0 +1,68 @@
+package org.example.service;
+
+import org.example.entity.Cryptocurrency;
+import org.example.entity.PriceSnapshot;
+import org.example.entity.dto.PriceBucketView;
+import org.example.repository.CryptocurrencyRepository;
+import org.example.repository.PriceSnapshotRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+public class PriceHistoryService {
+
+    private static final Logger log = LoggerFactory.getLogger(PriceHistoryService.class);
+
+    public static final int MAX_RAW_POINTS = 10_000;
+    public static final int MAX_BUCKETS = 5_000;
+
+    @Autowired
+    private PriceSnapshotRepository snapshotRepository;
+
+    @Autowired
+    private CryptocurrencyRepository cryptocurrencyRepository;
+
+    @Transactional
+    public void recordSnapshots(List<Cryptocurrency> tickers, Instant capturedAt) {
+        long capturedAtMillis = capturedAt.toEpochMilli();
+        List<PriceSnapshot> snapshots = new ArrayList<>(tickers.size());
+        for (Cryptocurrency ticker : tickers) {
+            snapshots.add(new PriceSnapshot(ticker.getId(), capturedAtMillis,
+                    toDouble(ticker.getPrice_usd()), toDouble(ticker.getMarket_cap_usd()),
+                    toDouble(ticker.getVolume24()), ticker.getRank()));
+        }
+        snapshotRepository.saveAll(snapshots);
+        log.info("Додано {} знімків цін в історію ({}).", snapshots.size(), capturedAt);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<List<PriceSnapshot>> getHistory(String symbol, Instant from, Instant to, int limit) {
+        return resolveCoinId(symbol).map(coinId -> snapshotRepository.findByCoinIdAndCapturedAtBetweenOrderByCapturedAtAsc(
+                coinId, from.toEpochMilli(), to.toEpochMilli(), Limit.of(Math.min(limit, MAX_RAW_POINTS))));
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<List<PriceBucketView>> getBuckets(String symbol, Instant from, Instant to, Duration bucket) {
+        return resolveCoinId(symbol).map(coinId -> snapshotRepository.findBuckets(
+                coinId, from.toEpochMilli(), to.toEpochMilli(), bucket.toMillis()));
+    }
+
+    private Optional<String> resolveCoinId(String symbol) {
+        return cryptocurrencyRepository.findFirstBySymbolIgnoreCaseOrderByRankAsc(symbol).map(Cryptocurrency::getId);
+    }
+
+    private static Double toDouble(BigDecimal value) {
+        return value != null ? value.doubleValue() : null;
+    }
+}
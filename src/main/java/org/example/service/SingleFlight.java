@@ -0,0 +1,42 @@
+package org.example.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent runs of the same task: while one run is in flight, every further caller
+ * gets that run's future instead of starting another. The slot is cleared once the run completes.
+ */
+public final class SingleFlight<T> {
+
+    private final AtomicReference<CompletableFuture<T>> inFlight = new AtomicReference<>();
+
+    public CompletableFuture<T> submit(Supplier<? extends CompletionStage<T>> task) {
+        CompletableFuture<T> promise = new CompletableFuture<>();
+        CompletableFuture<T> current = inFlight.compareAndExchange(null, promise);
+        if (current != null) {
+            return current;
+        }
+
+        try {
+            task.get().whenComplete((result, error) -> {
+                inFlight.set(null);
+                if (error != null) {
+                    promise.completeExceptionally(error);
+                } else {
+                    promise.complete(result);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.set(null);
+            promise.completeExceptionally(e);
+        }
+        return promise;
+    }
+
+    public boolean isInFlight() {
+        return inFlight.get() != null;
+    }
+}
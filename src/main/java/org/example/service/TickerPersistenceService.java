@@ -0,0 +1,160 @@
+package org.example.service;
+
+import org.example.entity.Cryptocurrency;
+import org.example.event.TickersChangedEvent;
+import org.example.repository.CryptocurrencyRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+@Service
+public class TickerPersistenceService {
+
+    private static final String MERGE_SQL = """
+            MERGE INTO cryptocurrency (id, symbol, name, nameid, rank, price_usd,
+                                       percent_change_24h, percent_change_1h, percent_change_7d,
+                                       market_cap_usd, volume24, volume24a, csupply, tsupply, msupply)
+            KEY (id)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    @Autowired
+    private CryptocurrencyRepository repository;
+
+    @Autowired
+    private PriceHistoryService priceHistoryService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Upserts one chunk of tickers and appends a price snapshot for every one of them in a single
+     * transaction. Only inserted and updated rows go into the {@link TickersChangedEvent}, which
+     * listeners see after the commit; a chunk with nothing new publishes no event.
+     *
+     * @return all tickers of the chunk, changed or not
+     */
+    @Transactional
+    public List<Cryptocurrency> saveChunk(List<Cryptocurrency> tickers, Instant capturedAt) {
+        if (tickers.isEmpty()) {
+            return List.of();
+        }
+        List<Cryptocurrency> changed = upsert(tickers);
+        priceHistoryService.recordSnapshots(tickers, capturedAt);
+        if (!changed.isEmpty()) {
+            eventPublisher.publishEvent(new TickersChangedEvent(changed));
+        }
+        return tickers;
+    }
+
+    /**
+     * Writes the given tickers with one id lookup instead of the per-entity SELECT that
+     * {@code saveAll} issues for assigned ids. New and changed rows go out as one batched H2
+     * {@code MERGE}, which takes the row lock in the database: two chunks that insert the same new id
+     * concurrently serialize on that row only, and the second one turns into an update.
+     *
+     * @return the inserted and updated tickers; rows whose values did not change are left out
+     */
+    @Transactional
+    public List<Cryptocurrency> upsert(List<Cryptocurrency> tickers) {
+        if (tickers.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, Cryptocurrency> existing = new HashMap<>();
+        for (Cryptocurrency current : repository.findAllById(tickers.stream().map(Cryptocurrency::getId).toList())) {
+            existing.put(current.getId(), current);
+        }
+
+        Map<String, Cryptocurrency> changed = new LinkedHashMap<>();
+        int inserted = 0;
+        int unchanged = 0;
+        for (Cryptocurrency ticker : tickers) {
+            Cryptocurrency current = existing.get(ticker.getId());
+            if (current != null && sameValues(current, ticker)) {
+                unchanged++;
+                continue;
+            }
+            if (current == null) {
+                inserted++;
+            }
+            existing.put(ticker.getId(), ticker);
+            changed.put(ticker.getId(), ticker);
+        }
+        merge(changed.values());
+        pipelineMetrics.recordRows(PipelineMetrics.CRYPTO, inserted, tickers.size() - inserted - unchanged, unchanged);
+        return new ArrayList<>(changed.values());
+    }
+
+    private void merge(Collection<Cryptocurrency> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(MERGE_SQL, rows, rows.size(), (statement, ticker) -> {
+            statement.setString(1, ticker.getId());
+            statement.setString(2, ticker.getSymbol());
+            statement.setString(3, ticker.getName());
+            statement.setString(4, ticker.getNameid());
+            statement.setObject(5, ticker.getRank(), Types.INTEGER);
+            statement.setBigDecimal(6, ticker.getPrice_usd());
+            statement.setObject(7, ticker.getPercent_change_24h(), Types.DOUBLE);
+            statement.setObject(8, ticker.getPercent_change_1h(), Types.DOUBLE);
+            statement.setObject(9, ticker.getPercent_change_7d(), Types.DOUBLE);
+            statement.setBigDecimal(10, ticker.getMarket_cap_usd());
+            statement.setBigDecimal(11, ticker.getVolume24());
+            statement.setBigDecimal(12, ticker.getVolume24a());
+            statement.setBigDecimal(13, ticker.getCsupply());
+            statement.setBigDecimal(14, ticker.getTsupply());
+            statement.setBigDecimal(15, ticker.getMsupply());
+        });
+    }
+
+    /**
+     * Field-by-field comparison. Decimals compare by value at the column's scale, since the database
+     * hands them back rounded to the declared scale while the API sends whatever scale it likes.
+     */
+    private static boolean sameValues(Cryptocurrency current, Cryptocurrency incoming) {
+        return Objects.equals(current.getSymbol(), incoming.getSymbol())
+                && Objects.equals(current.getName(), incoming.getName())
+                && Objects.equals(current.getNameid(), incoming.getNameid())
+                && Objects.equals(current.getRank(), incoming.getRank())
+                && sameDecimal(current.getPrice_usd(), incoming.getPrice_usd(), 4)
+                && Objects.equals(current.getPercent_change_24h(), incoming.getPercent_change_24h())
+                && Objects.equals(current.getPercent_change_1h(), incoming.getPercent_change_1h())
+                && Objects.equals(current.getPercent_change_7d(), incoming.getPercent_change_7d())
+                && sameDecimal(current.getMarket_cap_usd(), incoming.getMarket_cap_usd(), 2)
+                && sameDecimal(current.getVolume24(), incoming.getVolume24(), 4)
+                && sameDecimal(current.getVolume24a(), incoming.getVolume24a(), 4)
+                && sameDecimal(current.getCsupply(), incoming.getCsupply(), 4)
+                && sameDecimal(current.getTsupply(), incoming.getTsupply(), 4)
+                && sameDecimal(current.getMsupply(), incoming.getMsupply(), 4);
+    }
+
+    private static boolean sameDecimal(BigDecimal stored, BigDecimal incoming, int scale) {
+        if (stored == null || incoming == null) {
+            return stored == incoming;
+        }
+        BigDecimal rounded = incoming.scale() > scale ? incoming.setScale(scale, RoundingMode.HALF_UP) : incoming;
+        return stored.compareTo(rounded) == 0;
+    }
+}
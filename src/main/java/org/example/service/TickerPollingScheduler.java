@@ -0,0 +1,27 @@
+package org.example.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "coinlore.polling.enabled", havingValue = "true")
+public class TickerPollingScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(TickerPollingScheduler.class);
+
+    @Autowired
+    private CoinLoreApiService coinLoreApiService;
+
+    @Scheduled(fixedDelayString = "${coinlore.polling.interval-ms:60000}", initialDelayString = "${coinlore.polling.initial-delay-ms:5000}")
+    public void poll() {
+        try {
+            coinLoreApiService.pollChangedTickers().block();
+        } catch (Exception e) {
+            log.error("Помилка під час планового опитування CoinLore: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package org.example.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.example.entity.Cryptocurrency;
+import org.example.event.TickersChangedEvent;
+import org.example.repository.CryptocurrencyRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Immutable column-oriented copy of the latest tickers in rank order, published with a single volatile
+ * write. Each row's JSON is rendered from the columns once, so reads never touch the database and a
+ * full listing is served from one shared byte array. The database is read once; after that, committed
+ * changes are queued and applied on the next read, so a burst of chunk commits costs one re-sort and
+ * one concatenation, and only the rows that changed are re-rendered.
+ */
+@Component
+public class TickerSnapshot {
+
+    private static final Logger log = LoggerFactory.getLogger(TickerSnapshot.class);
+
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final int NO_RANK = Integer.MIN_VALUE;
+    private static final Comparator<Entry> ENTRY_ORDER = Comparator
+            .comparing((Entry entry) -> entry.rank() == NO_RANK)
+            .thenComparingInt(Entry::rank)
+            .thenComparing(Entry::id);
+
+    @Autowired
+    private CryptocurrencyRepository cryptocurrencyRepository;
+
+    private final AtomicLong versions = new AtomicLong();
+    private final Map<String, Cryptocurrency> pending = new LinkedHashMap<>();
+    private volatile boolean dirty;
+    private volatile Columns columns;
+
+    /**
+     * Pre-rendered JSON together with the snapshot version it came from. The bytes may be shared
+     * between requests and must not be modified.
+     */
+    public record Latest(long version, byte[] json) {
+    }
+
+    /**
+     * JSON array of the first {@code limit} tickers by rank.
+     */
+    public Latest latest(int limit) {
+        Columns current = current();
+        return new Latest(current.version, current.arrayJson(limit));
+    }
+
+    /**
+     * JSON object of the best-ranked ticker with this symbol (case-insensitive), or {@code null}.
+     */
+    public Latest latest(String symbol) {
+        Columns current = current();
+        Integer row = current.rowsBySymbol.get(symbol.toUpperCase(Locale.ROOT));
+        return row != null ? new Latest(current.version, current.rowJson[row]) : null;
+    }
+
+    public long getVersion() {
+        return current().version;
+    }
+
+    public int size() {
+        return current().ids.length;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTickersChanged(TickersChangedEvent event) {
+        synchronized (this) {
+            for (Cryptocurrency ticker : event.tickers()) {
+                pending.put(ticker.getId(), ticker);
+            }
+            dirty = true;
+        }
+    }
+
+    /**
+     * Reloads every row from the database, dropping any queued changes (the reload already has them).
+     */
+    public synchronized void rebuild() {
+        long startNanos = System.nanoTime();
+        List<Cryptocurrency> tickers = cryptocurrencyRepository.findAll();
+        pending.clear();
+        dirty = false;
+        List<Entry> entries = new ArrayList<>(tickers.size());
+        for (Cryptocurrency ticker : tickers) {
+            entries.add(Entry.changed(ticker));
+        }
+        entries.sort(ENTRY_ORDER);
+        columns = new Columns(entries, null, versions.incrementAndGet());
+        log.info("Знімок тикерів перебудовано: {} тикерів, {} байт JSON за {} мс.",
+                tickers.size(), columns.arrayJson.length, (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    private void applyPending() {
+        long startNanos = System.nanoTime();
+        Columns previous = columns;
+        List<Entry> entries = new ArrayList<>(previous.ids.length + pending.size());
+        for (int i = 0; i < previous.ids.length; i++) {
+            if (!pending.containsKey(previous.ids[i])) {
+                entries.add(new Entry(previous.ids[i], previous.ranks[i], i, null));
+            }
+        }
+        for (Cryptocurrency ticker : pending.values()) {
+            entries.add(Entry.changed(ticker));
+        }
+        int changed = pending.size();
+        pending.clear();
+        dirty = false;
+        entries.sort(ENTRY_ORDER);
+        columns = new Columns(entries, previous, versions.incrementAndGet());
+        log.debug("Знімок тикерів оновлено: {} змінених з {} тикерів за {} мс.",
+                changed, entries.size(), (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    private Columns current() {
+        Columns current = columns;
+        if (current != null && !dirty) {
+            return current;
+        }
+        synchronized (this) {
+            if (columns == null) {
+                rebuild();
+            } else if (dirty) {
+                applyPending();
+            }
+            return columns;
+        }
+    }
+
+    /**
+     * One row of the next snapshot in sort order: either a row kept from the previous snapshot
+     * ({@code previousRow}) or a changed ticker to copy into the columns and render.
+     */
+    private record Entry(String id, int rank, int previousRow, Cryptocurrency ticker) {
+
+        static Entry changed(Cryptocurrency ticker) {
+            return new Entry(ticker.getId(), ticker.getRank() != null ? ticker.getRank() : NO_RANK, -1, ticker);
+        }
+    }
+
+    private static final class Columns {
+        private final long version;
+
+        private final String[] ids;
+        private final String[] symbols;
+        private final String[] names;
+        private final String[] nameids;
+        private final int[] ranks;
+        private final double[] priceUsd;
+        private final double[] percentChange24h;
+        private final double[] percentChange1h;
+        private final double[] percentChange7d;
+        private final double[] marketCapUsd;
+        private final double[] volume24;
+        private final double[] volume24a;
+        private final double[] csupply;
+        private final double[] tsupply;
+        private final double[] msupply;
+
+        private final Map<String, Integer> rowsBySymbol = new HashMap<>();
+        private final byte[][] rowJson;
+        private final byte[] arrayJson;
+        private final int[] rowEnds;
+
+        /**
+         * Copies kept rows (values, interned symbol and rendered JSON) from {@code previous} and fills
+         * changed rows from their entity. The symbol table is the previous snapshot's, so it never holds
+         * symbols of rows that are gone.
+         */
+        Columns(List<Entry> entries, Columns previous, long version) {
+            this.version = version;
+            int n = entries.size();
+            ids = new String[n];
+            symbols = new String[n];
+            names = new String[n];
+            nameids = new String[n];
+            ranks = new int[n];
+            priceUsd = new double[n];
+            percentChange24h = new double[n];
+            percentChange1h = new double[n];
+            percentChange7d = new double[n];
+            marketCapUsd = new double[n];
+            volume24 = new double[n];
+            volume24a = new double[n];
+            csupply = new double[n];
+            tsupply = new double[n];
+            msupply = new double[n];
+            rowJson = new byte[n][];
+
+            for (int i = 0; i < n; i++) {
+                Entry entry = entries.get(i);
+                if (entry.ticker() != null) {
+                    fill(i, entry.ticker(), previous);
+                    rowJson[i] = renderRow(i);
+                } else {
+                    copy(i, previous, entry.previousRow());
+                }
+                if (symbols[i] != null) {
+                    rowsBySymbol.putIfAbsent(symbols[i].toUpperCase(Locale.ROOT), i);
+                }
+            }
+
+            rowEnds = new int[n];
+            int size = 2 + Math.max(0, n - 1);
+            for (byte[] row : rowJson) {
+                size += row.length;
+            }
+            ByteArrayOutputStream array = new ByteArrayOutputStream(size);
+            array.write('[');
+            for (int i = 0; i < n; i++) {
+                if (i > 0) {
+                    array.write(',');
+                }
+                array.writeBytes(rowJson[i]);
+                rowEnds[i] = array.size();
+            }
+            array.write(']');
+            arrayJson = array.toByteArray();
+        }
+
+        byte[] arrayJson(int limit) {
+            if (limit >= ids.length) {
+                return arrayJson;
+            }
+            if (limit <= 0) {
+                return new byte[]{'[', ']'};
+            }
+            byte[] prefix = Arrays.copyOf(arrayJson, rowEnds[limit - 1] + 1);
+            prefix[prefix.length - 1] = ']';
+            return prefix;
+        }
+
+        private void fill(int i, Cryptocurrency c, Columns previous) {
+            ids[i] = c.getId();
+            symbols[i] = intern(c.getSymbol(), previous);
+            names[i] = c.getName();
+            nameids[i] = c.getNameid();
+            ranks[i] = c.getRank() != null ? c.getRank() : NO_RANK;
+            priceUsd[i] = toDouble(c.getPrice_usd());
+            percentChange24h[i] = toDouble(c.getPercent_change_24h());
+            percentChange1h[i] = toDouble(c.getPercent_change_1h());
+            percentChange7d[i] = toDouble(c.getPercent_change_7d());
+            marketCapUsd[i] = toDouble(c.getMarket_cap_usd());
+            volume24[i] = toDouble(c.getVolume24());
+            volume24a[i] = toDouble(c.getVolume24a());
+            csupply[i] = toDouble(c.getCsupply());
+            tsupply[i] = toDouble(c.getTsupply());
+            msupply[i] = toDouble(c.getMsupply());
+        }
+
+        private void copy(int i, Columns previous, int row) {
+            ids[i] = previous.ids[row];
+            symbols[i] = previous.symbols[row];
+            names[i] = previous.names[row];
+            nameids[i] = previous.nameids[row];
+            ranks[i] = previous.ranks[row];
+            priceUsd[i] = previous.priceUsd[row];
+            percentChange24h[i] = previous.percentChange24h[row];
+            percentChange1h[i] = previous.percentChange1h[row];
+            percentChange7d[i] = previous.percentChange7d[row];
+            marketCapUsd[i] = previous.marketCapUsd[row];
+            volume24[i] = previous.volume24[row];
+            volume24a[i] = previous.volume24a[row];
+            csupply[i] = previous.csupply[row];
+            tsupply[i] = previous.tsupply[row];
+            msupply[i] = previous.msupply[row];
+            rowJson[i] = previous.rowJson[row];
+        }
+
+        private static String intern(String symbol, Columns previous) {
+            if (symbol == null || previous == null) {
+                return symbol;
+            }
+            Integer row = previous.rowsBySymbol.get(symbol.toUpperCase(Locale.ROOT));
+            return row != null && symbol.equals(previous.symbols[row]) ? previous.symbols[row] : symbol;
+        }
+
+        private byte[] renderRow(int i) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(384);
+            try (JsonGenerator json = JSON.createGenerator(out)) {
+                json.writeStartObject();
+                json.writeStringField("id", ids[i]);
+                json.writeStringField("symbol", symbols[i]);
+                json.writeStringField("name", names[i]);
+                json.writeStringField("nameid", nameids[i]);
+                if (ranks[i] != NO_RANK) {
+                    json.writeNumberField("rank", ranks[i]);
+                } else {
+                    json.writeNullField("rank");
+                }
+                writeNumber(json, "price_usd", priceUsd[i]);
+                writeNumber(json, "percent_change_24h", percentChange24h[i]);
+                writeNumber(json, "percent_change_1h", percentChange1h[i]);
+                writeNumber(json, "percent_change_7d", percentChange7d[i]);
+                writeNumber(json, "market_cap_usd", marketCapUsd[i]);
+                writeNumber(json, "volume24", volume24[i]);
+                writeNumber(json, "volume24a", volume24a[i]);
+                writeNumber(json, "csupply", csupply[i]);
+                writeNumber(json, "tsupply", tsupply[i]);
+                writeNumber(json, "msupply", msupply[i]);
+                json.writeEndObject();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return out.toByteArray();
+        }
+
+        private static void writeNumber(JsonGenerator json, String field, double value) throws IOException {
+            if (Double.isNaN(value) || Double.isInfinite(value)) {
+                json.writeNullField(field);
+            } else {
+                json.writeFieldName(field);
+                json.writeNumber(BigDecimal.valueOf(value).stripTrailingZeros().toPlainString());
+            }
+        }
+
+        private static double toDouble(BigDecimal value) {
+            return value != null ? value.doubleValue() : Double.NaN;
+        }
+
+        private static double toDouble(Double value) {
+            return value != null ? value : Double.NaN;
+        }
+    }
+}
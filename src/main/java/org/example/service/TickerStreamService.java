@@ -0,0 +1,211 @@
+package org.example.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.entity.Cryptocurrency;
+import org.example.event.TickersChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live ticker feed for server-sent events. One hot sink carries pre-rendered deltas of the tickers an
+ * ingestion inserted or updated; each subscriber sees only the rows inside its rank window, and
+ * shares the full event object whenever the whole delta falls inside that window. While at least
+ * one client is connected a single shared poller drives {@link CoinLoreApiService#pollChangedTickers()};
+ * extra clients add no upstream requests or database writes. A client that cannot keep up fills its
+ * own bounded buffer and is disconnected, and the browser reconnects to a fresh snapshot.
+ */
+@Service
+public class TickerStreamService {
+
+    private static final Logger log = LoggerFactory.getLogger(TickerStreamService.class);
+
+    private static final Duration EMIT_RETRY = Duration.ofMillis(100);
+
+    private final CoinLoreApiService coinLoreApiService;
+    private final TickerSnapshot tickerSnapshot;
+    private final ObjectMapper objectMapper;
+
+    private final Sinks.Many<Delta> deltas = Sinks.many().multicast().directBestEffort();
+    private final AtomicLong eventIds = new AtomicLong();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final Counter slowDisconnects;
+    private final Flux<List<Cryptocurrency>> upstreamPoller;
+    private final int bufferSize;
+    private final Duration heartbeat;
+    private final Duration sessionDuration;
+    private final long reconnectMillis;
+
+    public TickerStreamService(CoinLoreApiService coinLoreApiService,
+                               TickerSnapshot tickerSnapshot,
+                               ObjectMapper objectMapper,
+                               MeterRegistry registry,
+                               @Value("${coinlore.polling.enabled:false}") boolean scheduledPolling,
+                               @Value("${coinlore.stream.poll-interval-ms:15000}") long pollIntervalMs,
+                               @Value("${coinlore.stream.buffer-size:64}") int bufferSize,
+                               @Value("${coinlore.stream.heartbeat-ms:15000}") long heartbeatMs,
+                               @Value("${coinlore.stream.session-ms:600000}") long sessionMs,
+                               @Value("${coinlore.stream.reconnect-ms:3000}") long reconnectMs) {
+        this.coinLoreApiService = coinLoreApiService;
+        this.tickerSnapshot = tickerSnapshot;
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.heartbeat = Duration.ofMillis(heartbeatMs);
+        this.sessionDuration = Duration.ofMillis(sessionMs);
+        this.reconnectMillis = reconnectMs;
+        this.slowDisconnects = registry.counter("crypto.stream.slow.disconnects");
+        registry.gauge("crypto.stream.subscribers", subscribers);
+
+        Duration pollInterval = Duration.ofMillis(pollIntervalMs);
+        // the scheduled poller already feeds the event stream; a second one would only double the upstream load
+        this.upstreamPoller = scheduledPolling
+                ? Flux.<List<Cryptocurrency>>never()
+                : Flux.interval(Duration.ZERO, pollInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> coinLoreApiService.pollChangedTickers()
+                        .onErrorResume(e -> {
+                            log.warn("Опитування CoinLore для потоку не вдалося: {}", e.getMessage());
+                            return Mono.empty();
+                        }), 1)
+                .doOnSubscribe(s -> log.info("Запущено спільне опитування CoinLore для потоку (кожні {} мс).", pollIntervalMs))
+                .doOnCancel(() -> log.info("Спільне опитування CoinLore для потоку зупинено: клієнтів немає."))
+                .publish()
+                .refCount(1, pollInterval);
+    }
+
+    /**
+     * Snapshot of the first {@code limit} tickers followed by live deltas restricted to tickers ranked
+     * {@code 1..limit}; a delta with nothing in that window is not sent. A ticker that drops out of the
+     * window is not retracted: the client keeps its last row until the next snapshot. The delta
+     * subscription is opened before the snapshot is read, so nothing committed in between is lost; a
+     * delta that is already part of the snapshot is simply applied twice by the client.
+     */
+    public Flux<ServerSentEvent<String>> stream(int limit) {
+        Mono<ServerSentEvent<String>> snapshot = Mono.fromSupplier(() -> {
+                    TickerSnapshot.Latest latest = tickerSnapshot.latest(limit);
+                    return ServerSentEvent.builder(new String(latest.json(), StandardCharsets.UTF_8))
+                            .event("snapshot")
+                            .id(Long.toString(eventIds.get()))
+                            .retry(Duration.ofMillis(reconnectMillis))
+                            .build();
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+
+        // An overflow error from the buffer would only reach the client after everything buffered ahead
+        // of it, which a stalled client never consumes; the overflow signal ends the stream right away.
+        Sinks.One<Boolean> overflow = Sinks.one();
+        Flux<ServerSentEvent<String>> live = deltas.asFlux()
+                .onBackpressureBuffer(bufferSize, dropped -> {
+                    if (overflow.tryEmitValue(true).isSuccess()) {
+                        slowDisconnects.increment();
+                        log.info("Клієнт потоку тикерів не встигає ({} подій у буфері), відключаємо.", bufferSize);
+                    }
+                }, BufferOverflowStrategy.DROP_LATEST)
+                .handle((delta, sink) -> {
+                    ServerSentEvent<String> event = delta.forWindow(limit);
+                    if (event != null) {
+                        sink.next(event);
+                    }
+                });
+
+        Flux<ServerSentEvent<String>> pings = Flux.interval(heartbeat)
+                .map(tick -> ServerSentEvent.<String>builder().comment("ping").build());
+
+        return Flux.mergeSequential(snapshot, live)
+                .mergeWith(pings)
+                .mergeWith(upstreamPoller.then(Mono.empty()))
+                .take(sessionDuration)
+                .takeUntilOther(overflow.asMono())
+                .doOnSubscribe(s -> subscribers.incrementAndGet())
+                .doFinally(signal -> subscribers.decrementAndGet());
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.get();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTickersChanged(TickersChangedEvent event) {
+        if (deltas.currentSubscriberCount() == 0) {
+            return;
+        }
+        List<Cryptocurrency> tickers = event.tickers();
+        int[] ranks = new int[tickers.size()];
+        String[] rows = new String[tickers.size()];
+        int count = 0;
+        for (Cryptocurrency ticker : tickers) {
+            try {
+                rows[count] = objectMapper.writeValueAsString(ticker);
+            } catch (JsonProcessingException e) {
+                log.warn("Не вдалося серіалізувати тикер {}: {}", ticker.getId(), e.getMessage());
+                continue;
+            }
+            ranks[count++] = ticker.getRank() != null ? ticker.getRank() : Integer.MAX_VALUE;
+        }
+        if (count == 0) {
+            return;
+        }
+        Delta delta = new Delta(eventIds.incrementAndGet(), Arrays.copyOf(ranks, count), Arrays.copyOf(rows, count));
+        deltas.emitNext(delta, Sinks.EmitFailureHandler.busyLooping(EMIT_RETRY));
+        log.debug("Розіслано {} змінених тикерів {} клієнтам потоку.", count, deltas.currentSubscriberCount());
+    }
+
+    /**
+     * Rendered rows of one ingestion with their ranks; tickers without a rank sort after every window.
+     */
+    private static final class Delta {
+        private final long id;
+        private final int[] ranks;
+        private final String[] rows;
+        private final int maxRank;
+        private final ServerSentEvent<String> all;
+
+        Delta(long id, int[] ranks, String[] rows) {
+            this.id = id;
+            this.ranks = ranks;
+            this.rows = rows;
+            this.maxRank = Arrays.stream(ranks).max().orElse(0);
+            this.all = event(id, String.join(",", rows));
+        }
+
+        ServerSentEvent<String> forWindow(int limit) {
+            if (maxRank <= limit) {
+                return all;
+            }
+            StringJoiner json = new StringJoiner(",");
+            for (int i = 0; i < rows.length; i++) {
+                if (ranks[i] <= limit) {
+                    json.add(rows[i]);
+                }
+            }
+            return json.length() > 0 ? event(id, json.toString()) : null;
+        }
+
+        private static ServerSentEvent<String> event(long id, String rows) {
+            return ServerSentEvent.builder("[" + rows + "]")
+                    .event("tickers")
+                    .id(Long.toString(id))
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,314 @@
+package org.example.service;
+
+import org.example.entity.Movie;
+import org.example.entity.dto.MovieSuggestionDto;
+import org.example.event.MoviesChangedEvent;
+import org.example.repository.MovieRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Trigram index over movie titles for typeahead. Titles are lower-cased, punctuation is dropped and
+ * each word is padded ({@code "  word "}), so short prefixes and misspellings still share grams.
+ * Loaded on first use, then updated in place from {@link MoviesChangedEvent}.
+ */
+@Component
+public class TitleSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(TitleSearchIndex.class);
+
+    private static final double MIN_GRAM_SHARE = 0.34;
+    private static final double MAX_SUBSTRING_BOOST = 1.0;
+    private static final int MIN_SLOTS_TO_COMPACT = 1024;
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> slotsById = new HashMap<>();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private Movie[] movies = new Movie[1024];
+    private String[] titles = new String[1024];
+    private int[] gramCounts = new int[1024];
+    private int slotCount;
+    private int retiredSlots;
+    private volatile boolean loaded;
+
+    public List<MovieSuggestionDto> suggest(String query, int limit) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        ensureLoaded();
+
+        Set<String> queryGrams = grams(normalized, true);
+        int minMatches = Math.max(1, (int) Math.ceil(queryGrams.size() * MIN_GRAM_SHARE));
+        PriorityQueue<Candidate> top = new PriorityQueue<>(Comparator.comparingDouble(Candidate::score));
+
+        lock.readLock().lock();
+        try {
+            Scratch scratch = SCRATCH.get().ensureCapacity(slotCount);
+            int[] matches = scratch.matches;
+            int[] touched = scratch.touched;
+            int touchedCount = 0;
+            for (String gram : queryGrams) {
+                Postings list = postings.get(gram);
+                if (list == null) {
+                    continue;
+                }
+                for (int i = 0; i < list.size; i++) {
+                    int slot = list.slots[i];
+                    if (matches[slot]++ == 0) {
+                        touched[touchedCount++] = slot;
+                    }
+                }
+            }
+
+            for (int i = 0; i < touchedCount; i++) {
+                int slot = touched[i];
+                int matched = matches[slot];
+                matches[slot] = 0;
+                if (matched < minMatches || movies[slot] == null) {
+                    continue;
+                }
+                double dice = 2.0 * matched / (queryGrams.size() + gramCounts[slot]);
+                if (top.size() == limit && dice + MAX_SUBSTRING_BOOST <= top.peek().score()) {
+                    continue;
+                }
+                double score = dice + substringBoost(normalized, titles[slot]);
+                if (top.size() < limit) {
+                    top.add(new Candidate(slot, score));
+                } else if (score > top.peek().score()) {
+                    top.poll();
+                    top.add(new Candidate(slot, score));
+                }
+            }
+
+            List<MovieSuggestionDto> result = new ArrayList<>(top.size());
+            while (!top.isEmpty()) {
+                Candidate candidate = top.poll();
+                Movie movie = movies[candidate.slot()];
+                result.add(new MovieSuggestionDto(movie.getId(), movie.getTitle(), movie.getReleaseYear(), candidate.score()));
+            }
+            result.sort(Comparator.comparingDouble(MovieSuggestionDto::score).reversed());
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMoviesChanged(MoviesChangedEvent event) {
+        // Checked under the lock: an event that commits while ensureLoaded is still reading must wait
+        // for that load and then be applied, since the load may not have seen its rows.
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                return;
+            }
+            int before = slotsById.size();
+            for (Movie movie : event.movies()) {
+                index(movie);
+            }
+            if (slotCount >= MIN_SLOTS_TO_COMPACT && retiredSlots * 2 > slotCount) {
+                compact();
+            }
+            log.debug("Індекс назв оновлено: +{} фільмів, всього {}.", slotsById.size() - before, slotsById.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                long startNanos = System.nanoTime();
+                for (Movie movie : movieRepository.findAll()) {
+                    index(movie);
+                }
+                loaded = true;
+                log.info("Індекс назв фільмів побудовано: {} назв, {} триграм за {} мс.",
+                        slotsById.size(), postings.size(), (System.nanoTime() - startNanos) / 1_000_000);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a movie or refreshes it in place. A changed title retires the old slot; its stale postings
+     * are skipped at query time until {@link #compact()} drops them.
+     */
+    private void index(Movie movie) {
+        if (movie.getId() == null || movie.getTitle() == null) {
+            return;
+        }
+        String title = normalize(movie.getTitle());
+        Integer existing = slotsById.get(movie.getId());
+        if (existing != null) {
+            if (titles[existing].equals(title)) {
+                movies[existing] = movie;
+                return;
+            }
+            movies[existing] = null;
+            retiredSlots++;
+        }
+
+        int slot = slotCount++;
+        if (slot == movies.length) {
+            int capacity = movies.length * 2;
+            movies = Arrays.copyOf(movies, capacity);
+            titles = Arrays.copyOf(titles, capacity);
+            gramCounts = Arrays.copyOf(gramCounts, capacity);
+        }
+        Set<String> titleGrams = grams(title, false);
+        movies[slot] = movie;
+        titles[slot] = title;
+        gramCounts[slot] = titleGrams.size();
+        slotsById.put(movie.getId(), slot);
+        for (String gram : titleGrams) {
+            postings.computeIfAbsent(gram, g -> new Postings()).add(slot);
+        }
+    }
+
+    /**
+     * Re-indexes the live movies into fresh slots once more than half of the slots are retired, so
+     * renamed titles do not keep their stale postings forever.
+     */
+    private void compact() {
+        long startNanos = System.nanoTime();
+        List<Movie> live = new ArrayList<>(slotsById.size());
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (movies[slot] != null) {
+                live.add(movies[slot]);
+            }
+        }
+        int retired = retiredSlots;
+        int capacity = Math.max(1024, Integer.highestOneBit(Math.max(1, live.size())) * 2);
+        movies = new Movie[capacity];
+        titles = new String[capacity];
+        gramCounts = new int[capacity];
+        slotCount = 0;
+        retiredSlots = 0;
+        slotsById.clear();
+        postings.clear();
+        for (Movie movie : live) {
+            index(movie);
+        }
+        log.debug("Індекс назв ущільнено: прибрано {} застарілих слотів за {} мс.",
+                retired, (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    /**
+     * Added to the Dice similarity of the gram sets when the title starts with or contains the query.
+     */
+    private static double substringBoost(String query, String title) {
+        if (title.startsWith(query)) {
+            return MAX_SUBSTRING_BOOST;
+        }
+        int at = title.indexOf(query);
+        if (at < 0) {
+            return 0.0;
+        }
+        return title.charAt(at - 1) == ' ' ? 0.75 : 0.5;
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(text.length());
+        boolean space = true;
+        for (char c : text.toLowerCase(Locale.ROOT).toCharArray()) {
+            if (Character.isLetterOrDigit(c)) {
+                sb.append(c == 'ё' ? 'е' : c);
+                space = false;
+            } else if (!space) {
+                sb.append(' ');
+                space = true;
+            }
+        }
+        int length = sb.length();
+        return (length > 0 && sb.charAt(length - 1) == ' ') ? sb.substring(0, length - 1) : sb.toString();
+    }
+
+    /**
+     * Trigrams of each padded word. For a query the last word is treated as an unfinished prefix, so
+     * its trailing padded gram is left out.
+     */
+    private static Set<String> grams(String normalized, boolean prefixQuery) {
+        Set<String> result = new LinkedHashSet<>();
+        String[] words = normalized.split(" ");
+        for (int w = 0; w < words.length; w++) {
+            boolean open = prefixQuery && w == words.length - 1;
+            String padded = "  " + words[w] + (open ? "" : " ");
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                result.add(padded.substring(i, i + 3));
+            }
+        }
+        return result;
+    }
+
+    private record Candidate(int slot, double score) {
+    }
+
+    /**
+     * Per-thread match counters, reused across queries; {@code matches} is zeroed again as candidates are scored.
+     */
+    private static final class Scratch {
+        private int[] matches = new int[0];
+        private int[] touched = new int[0];
+
+        Scratch ensureCapacity(int slots) {
+            if (matches.length < slots) {
+                matches = new int[slots];
+                touched = new int[slots];
+            }
+            return this;
+        }
+    }
+
+    private static final class Postings {
+        private int[] slots = new int[4];
+        private int size;
+
+        void add(int slot) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+-- Baseline schema, matching what Hibernate generated from the entities before migrations were introduced.
+-- Existing databases are baselined at this version, so it must never describe anything newer.
+
+create table cryptocurrency (
+    id                 varchar(255) not null,
+    symbol             varchar(255),
+    name               varchar(255),
+    nameid             varchar(255),
+    rank               integer,
+    price_usd          numeric(19, 4),
+    percent_change_24h varchar(255),
+    percent_change_1h  varchar(255),
+    percent_change_7d  varchar(255),
+    market_cap_usd     numeric(19, 2),
+    volume24           numeric(19, 4),
+    volume24a          numeric(19, 4),
+    csupply            varchar(255),
+    tsupply            varchar(255),
+    msupply            varchar(255),
+    primary key (id)
+);
+
+create table movies (
+    id           bigint generated by default as identity,
+    title        varchar(255) not null,
+    release_year integer      not null,
+    genres       varchar(255) not null,
+    primary key (id)
+);
@@ -0,0 +1,21 @@
+-- Price history table and the read-path indexes. "if not exists" because ddl-auto=update may already have added them.
+
+create sequence if not exists price_snapshots_seq start with 1 increment by 100;
+
+create table if not exists price_snapshots (
+    id             bigint      not null,
+    coin_id        varchar(16) not null,
+    captured_at    bigint      not null,
+    price_usd      float(53),
+    market_cap_usd float(53),
+    volume24       float(53),
+    rank           integer,
+    primary key (id)
+);
+
+create index if not exists idx_price_snapshots_coin_time on price_snapshots (coin_id, captured_at);
+
+create index if not exists idx_cryptocurrency_rank on cryptocurrency (rank);
+create index if not exists idx_cryptocurrency_market_cap on cryptocurrency (market_cap_usd);
+
+create index if not exists idx_movies_year_title_id on movies (release_year, title, id);
@@ -0,0 +1,13 @@
+-- Movie ids moved from IDENTITY to the pooled movies_seq (allocationSize 50).
+-- Restart the sequence past the existing ids (one extra block, since the pooled optimizer hands out value - 49 .. value)
+-- and drop duplicate (title, release_year) rows, keeping the oldest, before the unique index goes on.
+
+delete from movies m
+where exists (select 1 from movies d where d.title = m.title and d.release_year = m.release_year and d.id < m.id);
+
+alter table movies alter column id drop identity;
+
+create sequence if not exists movies_seq start with 1 increment by 50;
+alter sequence movies_seq restart with (select coalesce(max(id), 0) + 51 from movies);
+
+create unique index if not exists ux_movies_title_year on movies (title, release_year);
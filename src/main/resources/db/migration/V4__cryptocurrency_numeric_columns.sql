@@ -0,0 +1,27 @@
+-- Percent changes and supplies were stored as the raw API strings. Blank or non-numeric values become null
+-- so the type change cannot fail on old rows.
+
+update cryptocurrency
+set percent_change_24h = nullif(trim(percent_change_24h), ''),
+    percent_change_1h  = nullif(trim(percent_change_1h), ''),
+    percent_change_7d  = nullif(trim(percent_change_7d), ''),
+    csupply            = nullif(trim(csupply), ''),
+    tsupply            = nullif(trim(tsupply), ''),
+    msupply            = nullif(trim(msupply), '');
+
+update cryptocurrency
+set percent_change_24h = case when regexp_like(percent_change_24h, '^[-+]?[0-9]*\.?[0-9]+([eE][-+]?[0-9]+)?$') then percent_change_24h end,
+    percent_change_1h  = case when regexp_like(percent_change_1h, '^[-+]?[0-9]*\.?[0-9]+([eE][-+]?[0-9]+)?$') then percent_change_1h end,
+    percent_change_7d  = case when regexp_like(percent_change_7d, '^[-+]?[0-9]*\.?[0-9]+([eE][-+]?[0-9]+)?$') then percent_change_7d end,
+    csupply            = case when regexp_like(csupply, '^[-+]?[0-9]*\.?[0-9]+$') then csupply end,
+    tsupply            = case when regexp_like(tsupply, '^[-+]?[0-9]*\.?[0-9]+$') then tsupply end,
+    msupply            = case when regexp_like(msupply, '^[-+]?[0-9]*\.?[0-9]+$') then msupply end;
+
+alter table cryptocurrency alter column percent_change_24h set data type float(53);
+alter table cryptocurrency alter column percent_change_1h set data type float(53);
+alter table cryptocurrency alter column percent_change_7d set data type float(53);
+alter table cryptocurrency alter column csupply set data type numeric(38, 4);
+alter table cryptocurrency alter column tsupply set data type numeric(38, 4);
+alter table cryptocurrency alter column msupply set data type numeric(38, 4);
+
+create index if not exists idx_cryptocurrency_change_24h on cryptocurrency (percent_change_24h);
@@ -7,6 +7,12 @@ const loadMoviesButton = document.getElementById('loadMoviesButton');
 const downloadXlsxButton = document.getElementById('downloadXlsxButton');
 const moviesTableBody = document.getElementById('moviesTableBody');
 const loadingIndicator = document.getElementById('loadingIndicatorMovies');
+const titleSearchInput = document.getElementById('titleSearch');
+const titleSuggestionsList = document.getElementById('titleSuggestions');
+
+const SUGGEST_DELAY_MS = 150;
+let suggestTimer = null;
+let suggestController = null;
 
 
 function setLoadingMovies(isLoading) {
@@ -35,12 +41,18 @@ async function fetchAndDisplayMovies() {
     moviesTableBody.innerHTML = '';
 
     try {
-        const response = await fetch(`${API_MOVIES_BASE}/load?yearFrom=${range.yearFrom}&yearTo=${range.yearTo}`);
+        const response = await fetch(`${API_MOVIES_BASE}/ndjson?yearFrom=${range.yearFrom}&yearTo=${range.yearTo}`);
         if (!response.ok) {
             throw new Error(`Помилка мережі: ${response.status} ${response.statusText}`);
         }
-        const movies = await response.json();
-        displayMoviesInTable(movies);
+        let count = 0;
+        await readNdjson(response, movie => {
+            appendMovieRow(movie);
+            count++;
+        });
+        if (count === 0) {
+            displayMoviesInTable([]);
+        }
     } catch (error) {
         console.error('Помилка при отриманні списку фільмів:', error);
         alert(`Не вдалося завантажити список фільмів: ${error.message}`);
@@ -54,6 +66,27 @@ async function fetchAndDisplayMovies() {
 }
 
 
+async function readNdjson(response, onItem) {
+    const reader = response.body.getReader();
+    const decoder = new TextDecoder();
+    let buffer = '';
+
+    while (true) {
+        const { done, value } = await reader.read();
+        if (done) break;
+        buffer += decoder.decode(value, { stream: true });
+
+        let newlineIndex;
+        while ((newlineIndex = buffer.indexOf('\n')) >= 0) {
+            const line = buffer.slice(0, newlineIndex).trim();
+            buffer = buffer.slice(newlineIndex + 1);
+            if (line) onItem(JSON.parse(line));
+        }
+    }
+    if (buffer.trim()) onItem(JSON.parse(buffer));
+}
+
+
 async function scrapeAndRefresh() {
     const range = getYearRange();
     if (!range) return;
@@ -98,13 +131,16 @@ function displayMoviesInTable(movies) {
         return;
     }
 
-    movies.forEach(movie => {
-        const row = moviesTableBody.insertRow();
-        row.insertCell().textContent = movie.title || '';
-        row.insertCell().textContent = movie.releaseYear !== null ? movie.releaseYear : '';
-        row.insertCell().textContent = movie.genres || '';
-        row.insertCell().textContent = movie.id || '';
-    });
+    movies.forEach(appendMovieRow);
+}
+
+
+function appendMovieRow(movie) {
+    const row = moviesTableBody.insertRow();
+    row.insertCell().textContent = movie.title || '';
+    row.insertCell().textContent = movie.releaseYear !== null ? movie.releaseYear : '';
+    row.insertCell().textContent = movie.genres || '';
+    row.insertCell().textContent = movie.id || '';
 }
 
 
@@ -118,6 +154,57 @@ function downloadMoviesXlsx() {
 }
 
 
+function scheduleSuggestions() {
+    clearTimeout(suggestTimer);
+    suggestTimer = setTimeout(fetchSuggestions, SUGGEST_DELAY_MS);
+}
+
+
+async function fetchSuggestions() {
+    const query = titleSearchInput.value.trim();
+    if (suggestController) suggestController.abort();
+    if (!query) {
+        titleSuggestionsList.innerHTML = '';
+        return;
+    }
+
+    suggestController = new AbortController();
+    try {
+        const response = await fetch(`${API_MOVIES_BASE}/suggest?q=${encodeURIComponent(query)}&limit=10`,
+            { signal: suggestController.signal });
+        if (!response.ok) {
+            throw new Error(`Помилка мережі: ${response.status} ${response.statusText}`);
+        }
+        displaySuggestions(await response.json());
+    } catch (error) {
+        if (error.name !== 'AbortError') {
+            console.error('Помилка при отриманні підказок:', error);
+        }
+    }
+}
+
+
+function displaySuggestions(suggestions) {
+    titleSuggestionsList.innerHTML = '';
+    suggestions.forEach(suggestion => {
+        const item = document.createElement('li');
+        item.textContent = suggestion.releaseYear !== null
+            ? `${suggestion.title} (${suggestion.releaseYear})`
+            : suggestion.title;
+        item.addEventListener('click', () => {
+            titleSearchInput.value = suggestion.title;
+            titleSuggestionsList.innerHTML = '';
+            if (suggestion.releaseYear !== null) {
+                yearFromInput.value = suggestion.releaseYear;
+                yearToInput.value = suggestion.releaseYear;
+            }
+        });
+        titleSuggestionsList.appendChild(item);
+    });
+}
+
+
 scrapeButton.addEventListener('click', scrapeAndRefresh);
 loadMoviesButton.addEventListener('click', fetchAndDisplayMovies);
 downloadXlsxButton.addEventListener('click', downloadMoviesXlsx);
+titleSearchInput.addEventListener('input', scheduleSuggestions);
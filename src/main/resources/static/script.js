@@ -48,43 +48,105 @@ function displayDataInTable(cryptos) {
         return;
     }
 
-    cryptos.forEach(crypto => {
-        const row = tableBody.insertRow();
+    cryptos.forEach(appendCryptoRow);
+}
 
-        row.insertCell().textContent = crypto.id || '';
-        row.insertCell().textContent = crypto.symbol || '';
-        row.insertCell().textContent = crypto.name || '';
-        row.insertCell().textContent = crypto.rank !== null ? crypto.rank : '';
 
-        const priceUsdCell = row.insertCell();
-        priceUsdCell.textContent = crypto.price_usd !== null ? parseFloat(crypto.price_usd).toFixed(4) : '';
-        priceUsdCell.style.textAlign = 'right';
+function appendCryptoRow(crypto) {
+    fillCryptoRow(tableBody.insertRow(), crypto);
+}
 
-        const change24hCell = row.insertCell();
-        change24hCell.textContent = crypto.percent_change_24h ? `${crypto.percent_change_24h}%` : '';
-        if (crypto.percent_change_24h) {
-            const change = parseFloat(crypto.percent_change_24h);
-            change24hCell.style.color = change > 0 ? 'green' : (change < 0 ? 'red' : 'black');
+
+function upsertCryptoRow(crypto) {
+    const existing = tableBody.querySelector(`tr[data-id="${CSS.escape(String(crypto.id))}"]`);
+    if (!existing) {
+        if (!tableBody.querySelector('tr[data-id]')) {
+            clearTable();
         }
-        change24hCell.style.textAlign = 'right';
+        appendCryptoRow(crypto);
+        return;
+    }
+    const row = document.createElement('tr');
+    fillCryptoRow(row, crypto);
+    existing.replaceWith(row);
+}
 
-        const marketCapCell = row.insertCell();
-        marketCapCell.textContent = crypto.market_cap_usd !== null
-            ? parseFloat(crypto.market_cap_usd).toLocaleString('en-US', {
-                minimumFractionDigits: 2,
-                maximumFractionDigits: 2
-            })
-            : '';
-        marketCapCell.style.textAlign = 'right';
 
-        const volume24Cell = row.insertCell();
-        volume24Cell.textContent = crypto.volume24 !== null
-            ? parseFloat(crypto.volume24).toLocaleString('en-US', {minimumFractionDigits: 2, maximumFractionDigits: 2})
-            : '';
-        volume24Cell.style.textAlign = 'right';
+function fillCryptoRow(row, crypto) {
+    row.dataset.id = crypto.id;
 
+    row.insertCell().textContent = crypto.id || '';
+    row.insertCell().textContent = crypto.symbol || '';
+    row.insertCell().textContent = crypto.name || '';
+    row.insertCell().textContent = crypto.rank !== null ? crypto.rank : '';
 
-    });
+    const priceUsdCell = row.insertCell();
+    priceUsdCell.textContent = crypto.price_usd !== null ? parseFloat(crypto.price_usd).toFixed(4) : '';
+    priceUsdCell.style.textAlign = 'right';
+
+    const change24hCell = row.insertCell();
+    const hasChange24h = crypto.percent_change_24h !== null && crypto.percent_change_24h !== undefined;
+    change24hCell.textContent = hasChange24h ? `${crypto.percent_change_24h}%` : '';
+    if (hasChange24h) {
+        const change = parseFloat(crypto.percent_change_24h);
+        change24hCell.style.color = change > 0 ? 'green' : (change < 0 ? 'red' : 'black');
+    }
+    change24hCell.style.textAlign = 'right';
+
+    const marketCapCell = row.insertCell();
+    marketCapCell.textContent = crypto.market_cap_usd !== null
+        ? parseFloat(crypto.market_cap_usd).toLocaleString('en-US', {
+            minimumFractionDigits: 2,
+            maximumFractionDigits: 2
+        })
+        : '';
+    marketCapCell.style.textAlign = 'right';
+
+    const volume24Cell = row.insertCell();
+    volume24Cell.textContent = crypto.volume24 !== null
+        ? parseFloat(crypto.volume24).toLocaleString('en-US', {minimumFractionDigits: 2, maximumFractionDigits: 2})
+        : '';
+    volume24Cell.style.textAlign = 'right';
+}
+
+
+async function loadStoredData() {
+    setLoading(true);
+    clearTable();
+    try {
+        const response = await fetch(`${API_BASE}/ndjson`);
+        if (!response.ok) {
+            throw new Error(`Помилка мережі: ${response.status} ${response.statusText}`);
+        }
+
+        const reader = response.body.getReader();
+        const decoder = new TextDecoder();
+        let buffer = '';
+        let count = 0;
+        while (true) {
+            const { done, value } = await reader.read();
+            if (done) break;
+            buffer += decoder.decode(value, { stream: true });
+
+            let newlineIndex;
+            while ((newlineIndex = buffer.indexOf('\n')) >= 0) {
+                const line = buffer.slice(0, newlineIndex).trim();
+                buffer = buffer.slice(newlineIndex + 1);
+                if (line) {
+                    appendCryptoRow(JSON.parse(line));
+                    count++;
+                }
+            }
+        }
+        if (count === 0) {
+            displayDataInTable([]);
+        }
+    } catch (error) {
+        console.error('Помилка при завантаженні збережених даних:', error);
+        clearTable();
+    } finally {
+        setLoading(false);
+    }
 }
 
 
@@ -109,4 +171,29 @@ function downloadFile(url, filename) {
 
 function downloadExcel() {
     downloadFile(`${API_BASE}/export/excel`, 'cryptocurrencies.xlsx');
-}
\ No newline at end of file
+}
+
+function startLiveUpdates() {
+    const source = new EventSource(`${API_BASE}/stream`);
+
+    source.addEventListener('snapshot', event => {
+        const cryptos = JSON.parse(event.data);
+        if (!tableBody.querySelector('tr[data-id]')) {
+            displayDataInTable(cryptos);
+        } else {
+            cryptos.forEach(upsertCryptoRow);
+        }
+    });
+
+    source.addEventListener('tickers', event => {
+        JSON.parse(event.data).forEach(upsertCryptoRow);
+    });
+
+    // EventSource reconnects by itself and the server starts every connection with a fresh snapshot
+    source.onerror = () => console.warn('Потік тикерів перервано, перепідключення...');
+}
+
+document.addEventListener('DOMContentLoaded', async () => {
+    await loadStoredData();
+    startLiveUpdates();
+});
@@ -0,0 +1,88 @@
+package org.example;
+
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Upgrades a database that looks like the pre-migration schema (baselined at V1) to the latest version.
+ */
+class FlywayMigrationTest {
+
+    private JdbcDataSource dataSource;
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        jdbc = new JdbcTemplate(dataSource);
+        flyway("1").migrate();
+    }
+
+    @Test
+    void createsPriceSnapshotsAndIndexes() {
+        flyway(null).migrate();
+
+        assertThat(count("select count(*) from information_schema.tables where table_name = 'PRICE_SNAPSHOTS'")).isEqualTo(1);
+        assertThat(count("select count(*) from information_schema.indexes where index_name in "
+                + "('IDX_PRICE_SNAPSHOTS_COIN_TIME', 'IDX_CRYPTOCURRENCY_RANK', 'IDX_MOVIES_YEAR_TITLE_ID')")).isEqualTo(3);
+    }
+
+    @Test
+    void restartsMovieSequenceAboveExistingIdsAndDropsDuplicates() {
+        jdbc.update("insert into movies (title, release_year, genres) values "
+                + "('Heat', 1995, 'crime'), ('Heat', 1995, 'drama'), ('Alien', 1979, 'horror')");
+        long maxId = count("select max(id) from movies");
+
+        flyway(null).migrate();
+
+        assertThat(jdbc.queryForList("select genres from movies where title = 'Heat'", String.class))
+                .containsExactly("crime");
+        assertThat(count("select count(*) from information_schema.indexes where index_name = 'UX_MOVIES_TITLE_YEAR'"))
+                .isEqualTo(1);
+        // the pooled optimizer uses ids from (next - 49), so that must already be past the old ids
+        assertThat(count("select next value for movies_seq") - 49).isGreaterThan(maxId);
+    }
+
+    @Test
+    void convertsCryptocurrencyStringColumnsToNumbers() {
+        jdbc.update("insert into cryptocurrency (id, percent_change_24h, percent_change_1h, percent_change_7d, "
+                + "csupply, tsupply, msupply) values ('90', '1.25', ' -0.5 ', '', '19000000', '21000000.00', ''), "
+                + "('80', '?', null, 'n/a', 'abc', null, '')");
+
+        flyway(null).migrate();
+
+        assertThat(jdbc.queryForList("select data_type from information_schema.columns where table_name = 'CRYPTOCURRENCY' "
+                + "and column_name in ('PERCENT_CHANGE_24H', 'PERCENT_CHANGE_1H', 'PERCENT_CHANGE_7D', "
+                + "'CSUPPLY', 'TSUPPLY', 'MSUPPLY')", String.class))
+                .hasSize(6)
+                .doesNotContain("CHARACTER VARYING");
+        var bitcoin = jdbc.queryForMap("select * from cryptocurrency where id = '90'");
+        assertThat(((Number) bitcoin.get("PERCENT_CHANGE_24H")).doubleValue()).isEqualTo(1.25);
+        assertThat(((Number) bitcoin.get("PERCENT_CHANGE_1H")).doubleValue()).isEqualTo(-0.5);
+        assertThat(bitcoin.get("PERCENT_CHANGE_7D")).isNull();
+        assertThat(((Number) bitcoin.get("CSUPPLY")).longValue()).isEqualTo(19_000_000L);
+        assertThat(count("select count(*) from cryptocurrency where id = '80' and percent_change_24h is null "
+                + "and percent_change_7d is null and csupply is null")).isEqualTo(1);
+    }
+
+    private Flyway flyway(String target) {
+        var config = Flyway.configure().dataSource(dataSource).locations("classpath:db/migration");
+        if (target != null) {
+            config.target(target);
+        }
+        return config.load();
+    }
+
+    private long count(String sql) {
+        return jdbc.queryForObject(sql, Long.class);
+    }
+}
@@ -0,0 +1,15 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+/**
+ * Fails to start if the schema built by the Flyway migrations drifts from the entity mappings.
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=validate")
+class SchemaValidationTest {
+
+    @Test
+    void migrationsMatchEntities() {
+    }
+}
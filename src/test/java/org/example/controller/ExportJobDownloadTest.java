@@ -0,0 +1,223 @@
+package org.example.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.entity.Movie;
+import org.example.repository.MovieRepository;
+import org.example.service.ExportJobService;
+import org.example.service.ExportService;
+import org.example.service.JobService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * {@code GET /api/jobs/{id}/download} for a spooled movie export: single ranges, {@code If-Range}
+ * validation, the Tomcat sendfile hand-off and the 404 once the job is gone; plus deduplication of
+ * identical submissions while the first one is still running.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:export-job-download;DB_CLOSE_DELAY=-1",
+        "export.spool.dir=${java.io.tmpdir}/banksdata-export-job-download-test"
+})
+@AutoConfigureMockMvc
+class ExportJobDownloadTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private JobService jobService;
+
+    @Autowired
+    private ExportJobService exportJobService;
+
+    @SpyBean
+    private ExportService exportService;
+
+    @BeforeEach
+    void seed() {
+        movieRepository.deleteAllInBatch();
+        movieRepository.saveAll(List.of(
+                new Movie("Зелена миля", 1999, "Драма"),
+                new Movie("Бійцівський клуб", 1999, "Драма, Трилер"),
+                new Movie("Матриця", 1999, "Бойовик, Фантастика")));
+    }
+
+    @Test
+    void servesASingleRangeAsPartialContent() throws Exception {
+        String id = finishedExport();
+        byte[] full = download(id).getContentAsByteArray();
+        assertThat(new String(full, StandardCharsets.UTF_8)).startsWith("id,title,release_year,genres");
+
+        MockHttpServletResponse partial = download(id, builder -> builder.header(HttpHeaders.RANGE, "bytes=3-12"));
+
+        assertThat(partial.getStatus()).isEqualTo(206);
+        assertThat(partial.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 3-12/" + full.length);
+        assertThat(partial.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(full, 3, 13));
+    }
+
+    @Test
+    void staleIfRangeGetsTheWholeFile() throws Exception {
+        String id = finishedExport();
+        MockHttpServletResponse first = download(id);
+        byte[] full = first.getContentAsByteArray();
+        String etag = first.getHeader(HttpHeaders.ETAG);
+        String lastModified = first.getHeader(HttpHeaders.LAST_MODIFIED);
+        String staleDate = DateTimeFormatter.RFC_1123_DATE_TIME.format(Instant.now().minusSeconds(3600).atOffset(ZoneOffset.UTC));
+
+        for (String stale : List.of("\"export-other\"", "W/" + etag, staleDate)) {
+            MockHttpServletResponse response = download(id, builder -> builder
+                    .header(HttpHeaders.RANGE, "bytes=0-9").header(HttpHeaders.IF_RANGE, stale));
+            assertThat(response.getStatus()).as(stale).isEqualTo(200);
+            assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).as(stale).isNull();
+            assertThat(response.getContentAsByteArray()).as(stale).isEqualTo(full);
+        }
+
+        for (String current : List.of(etag, lastModified)) {
+            MockHttpServletResponse response = download(id, builder -> builder
+                    .header(HttpHeaders.RANGE, "bytes=0-9").header(HttpHeaders.IF_RANGE, current));
+            assertThat(response.getStatus()).as(current).isEqualTo(206);
+            assertThat(response.getContentAsByteArray()).as(current).isEqualTo(Arrays.copyOf(full, 10));
+        }
+    }
+
+    @Test
+    void handsAFullDownloadToSendfile() throws Exception {
+        String id = finishedExport();
+        long size = download(id).getContentAsByteArray().length;
+
+        MvcResult result = mvc.perform(get("/api/jobs/{id}/download", id)
+                        .requestAttr("org.apache.tomcat.sendfile.support", Boolean.TRUE))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertThat(result.getResponse().getContentLengthLong()).isEqualTo(size);
+        assertThat(result.getResponse().getContentAsByteArray()).isEmpty();
+        assertThat(result.getRequest().getAttribute("org.apache.tomcat.sendfile.filename")).asString().endsWith(id + ".csv");
+        assertThat(result.getRequest().getAttribute("org.apache.tomcat.sendfile.start")).isEqualTo(0L);
+        assertThat(result.getRequest().getAttribute("org.apache.tomcat.sendfile.end")).isEqualTo(size);
+    }
+
+    @Test
+    void unknownOrExpiredJobIsNotFound() throws Exception {
+        mvc.perform(get("/api/jobs/{id}/download", "no-such-job")).andExpect(status().isNotFound());
+
+        String id = finishedExport();
+        assertThat(download(id).getStatus()).isEqualTo(200);
+
+        JobService jobs = AopTestUtils.getTargetObject(jobService);
+        ExportJobService exports = AopTestUtils.getTargetObject(exportJobService);
+        Object jobsTtl = ReflectionTestUtils.getField(jobs, "ttlMillis");
+        Object exportsTtl = ReflectionTestUtils.getField(exports, "ttlMillis");
+        try {
+            Thread.sleep(5);
+            ReflectionTestUtils.setField(jobs, "ttlMillis", 0L);
+            ReflectionTestUtils.setField(exports, "ttlMillis", 0L);
+            exportJobService.evictExpired();
+            jobService.evictExpired();
+        } finally {
+            ReflectionTestUtils.setField(jobs, "ttlMillis", jobsTtl);
+            ReflectionTestUtils.setField(exports, "ttlMillis", exportsTtl);
+        }
+
+        mvc.perform(get("/api/jobs/{id}/download", id)).andExpect(status().isNotFound());
+        mvc.perform(get("/api/jobs/{id}", id)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void identicalSubmissionsShareTheRunningJob() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            started.countDown();
+            assertThat(release.await(10, TimeUnit.SECONDS)).isTrue();
+            return invocation.callRealMethod();
+        }).when(exportService).writeMoviesCsv(any(), any(), any());
+
+        String first = submit("csv", 1990, 2010);
+        assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+        String second = submit("csv", 1990, 2010);
+        String otherRange = submit("csv", 1995, 2010);
+        release.countDown();
+
+        assertThat(second).isEqualTo(first);
+        assertThat(otherRange).isNotEqualTo(first);
+        awaitSucceeded(first);
+        awaitSucceeded(otherRange);
+
+        assertThat(submit("csv", 1990, 2010)).isNotEqualTo(first);
+    }
+
+    private String finishedExport() throws Exception {
+        String id = submit("csv", 1990, 2010);
+        awaitSucceeded(id);
+        return id;
+    }
+
+    private String submit(String format, int yearFrom, int yearTo) throws Exception {
+        String body = mvc.perform(post("/api/movies/export/jobs")
+                        .param("format", format)
+                        .param("yearFrom", String.valueOf(yearFrom))
+                        .param("yearTo", String.valueOf(yearTo)))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getContentAsString();
+        return MAPPER.readTree(body).get("id").asText();
+    }
+
+    private void awaitSucceeded(String id) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        String state;
+        do {
+            JsonNode status = MAPPER.readTree(mvc.perform(get("/api/jobs/{id}", id))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            state = status.get("state").asText();
+            if ("RUNNING".equals(state)) {
+                Thread.sleep(10);
+            }
+        } while ("RUNNING".equals(state) && System.nanoTime() < deadline);
+        assertThat(state).isEqualTo("SUCCEEDED");
+    }
+
+    private MockHttpServletResponse download(String id) throws Exception {
+        return download(id, builder -> builder);
+    }
+
+    private MockHttpServletResponse download(String id, UnaryOperator<MockHttpServletRequestBuilder> headers)
+            throws Exception {
+        return mvc.perform(headers.apply(get("/api/jobs/{id}/download", id))).andReturn().getResponse();
+    }
+}
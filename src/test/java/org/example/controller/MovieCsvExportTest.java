@@ -0,0 +1,125 @@
+package org.example.controller;
+
+import org.example.entity.Movie;
+import org.example.repository.MovieRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * {@code GET /api/movies/export/csv}: streamed CSV, gzip only when the client accepts it, and
+ * conditional requests answered from the data version without running the export.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:movie-csv-export;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+class MovieCsvExportTest {
+
+    private static final String EXPECTED_CSV = """
+            id,title,release_year,genres\r
+            %d,"Матриця, перезавантаження",2003,"Бойовик, Фантастика"\r
+            %d,Бійцівський клуб,1999,"Драма, Трилер"\r
+            %d,Зелена миля,1999,Драма\r
+            """;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    private List<Movie> movies;
+
+    @BeforeEach
+    void seed() {
+        movieRepository.deleteAllInBatch();
+        movies = movieRepository.saveAll(List.of(
+                new Movie("Зелена миля", 1999, "Драма"),
+                new Movie("Бійцівський клуб", 1999, "Драма, Трилер"),
+                new Movie("Матриця, перезавантаження", 2003, "Бойовик, Фантастика"),
+                new Movie("Хрещений батько", 1972, "Драма, Кримінал")));
+    }
+
+    @Test
+    void streamsPlainCsvWithDownloadHeaders() throws Exception {
+        MockHttpServletResponse response = export(csv());
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentType()).isEqualTo("text/csv;charset=UTF-8");
+        assertThat(response.getHeader(HttpHeaders.CONTENT_DISPOSITION)).isEqualTo("attachment; filename=movies_1990_2010.csv");
+        assertThat(response.getHeader(HttpHeaders.VARY)).isEqualTo(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(response.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("no-cache");
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNotBlank();
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(response.getContentAsString(StandardCharsets.UTF_8)).isEqualTo(expectedCsv());
+    }
+
+    @Test
+    void gzipsOnlyWhenAcceptEncodingAllowsIt() throws Exception {
+        MockHttpServletResponse gzipped = export(csv().header(HttpHeaders.ACCEPT_ENCODING, "br, gzip;q=0.8"));
+        assertThat(gzipped.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(gzipped.getHeader(HttpHeaders.VARY)).isEqualTo(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(gunzip(gzipped.getContentAsByteArray())).isEqualTo(expectedCsv());
+
+        MockHttpServletResponse refused = export(csv().header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, deflate"));
+        assertThat(refused.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(refused.getHeader(HttpHeaders.VARY)).isEqualTo(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(refused.getContentAsString(StandardCharsets.UTF_8)).isEqualTo(expectedCsv());
+
+        assertThat(gzipped.getHeader(HttpHeaders.ETAG)).isNotEqualTo(refused.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void answersNotModifiedForAMatchingEtag() throws Exception {
+        String etag = export(csv()).getHeader(HttpHeaders.ETAG);
+        String gzipEtag = export(csv().header(HttpHeaders.ACCEPT_ENCODING, "gzip")).getHeader(HttpHeaders.ETAG);
+
+        mvc.perform(csv().header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(request().asyncNotStarted());
+        mvc.perform(csv().header(HttpHeaders.ACCEPT_ENCODING, "gzip").header(HttpHeaders.IF_NONE_MATCH, gzipEtag))
+                .andExpect(status().isNotModified());
+        mvc.perform(csv().header(HttpHeaders.ACCEPT_ENCODING, "gzip").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, gzipEtag));
+    }
+
+    private MockHttpServletRequestBuilder csv() {
+        return get("/api/movies/export/csv").param("yearFrom", "1990").param("yearTo", "2010");
+    }
+
+    private MockHttpServletResponse export(MockHttpServletRequestBuilder builder) throws Exception {
+        MvcResult started = mvc.perform(builder).andExpect(request().asyncStarted()).andReturn();
+        return mvc.perform(asyncDispatch(started)).andReturn().getResponse();
+    }
+
+    private String expectedCsv() {
+        return EXPECTED_CSV.formatted(movies.get(2).getId(), movies.get(1).getId(), movies.get(0).getId());
+    }
+
+    private static String gunzip(byte[] body) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
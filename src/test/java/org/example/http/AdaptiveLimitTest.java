@@ -0,0 +1,119 @@
+package org.example.http;
+
+import org.example.http.AdaptiveLimit.Permit;
+import org.example.http.AdaptiveLimit.Signal;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveLimitTest {
+
+    @Test
+    void overloadHalvesTheLimitOncePerBurst() {
+        AdaptiveLimit limit = new AdaptiveLimit(8, 1, 16, 2.0);
+        Permit first = limit.acquire().join();
+        Permit second = limit.acquire().join();
+
+        first.signal(Signal.OVERLOAD);
+        limit.release(first);
+        second.signal(Signal.OVERLOAD);
+        limit.release(second);
+
+        // the second rejection was already in flight when the first one arrived: one signal, one cut
+        assertThat(limit.limit()).isEqualTo(4);
+        assertThat(limit.inFlight()).isZero();
+    }
+
+    @Test
+    void overloadNeverGoesBelowMinimum() throws InterruptedException {
+        AdaptiveLimit limit = new AdaptiveLimit(4, 3, 16, 2.0);
+        for (int i = 0; i < 3; i++) {
+            Permit permit = limit.acquire().join();
+            permit.signal(Signal.OVERLOAD);
+            limit.release(permit);
+            Thread.sleep(110);
+        }
+        assertThat(limit.limit()).isEqualTo(3);
+    }
+
+    @Test
+    void successesGrowTheLimitByAboutOnePerRoundTrip() {
+        AdaptiveLimit limit = new AdaptiveLimit(4, 1, 16, Double.POSITIVE_INFINITY);
+        for (int i = 0; i < 4; i++) {
+            Permit permit = limit.acquire().join();
+            permit.signal(Signal.SUCCESS);
+            limit.release(permit);
+        }
+        assertThat(limit.limit()).isEqualTo(4);
+
+        for (int i = 0; i < 2; i++) {
+            Permit permit = limit.acquire().join();
+            permit.signal(Signal.SUCCESS);
+            limit.release(permit);
+        }
+        // 4 + 1/4 + 1/4.25 + ... passes 5 after five successes
+        assertThat(limit.limit()).isEqualTo(5);
+    }
+
+    @Test
+    void growthStopsAtMaximum() {
+        AdaptiveLimit limit = new AdaptiveLimit(2, 1, 3, Double.POSITIVE_INFINITY);
+        for (int i = 0; i < 50; i++) {
+            Permit permit = limit.acquire().join();
+            permit.signal(Signal.SUCCESS);
+            limit.release(permit);
+        }
+        assertThat(limit.limit()).isEqualTo(3);
+    }
+
+    @Test
+    void slowResponseTrimsTheLimit() throws InterruptedException {
+        AdaptiveLimit limit = new AdaptiveLimit(10, 1, 16, 2.0);
+        Permit fast = limit.acquire().join();
+        fast.signal(Signal.SUCCESS);
+        limit.release(fast);
+
+        Permit slow = limit.acquire().join();
+        Thread.sleep(150);
+        slow.signal(Signal.SUCCESS);
+        limit.release(slow);
+
+        assertThat(limit.limit()).isEqualTo(9);
+    }
+
+    @Test
+    void ignoredOutcomeLeavesTheLimitAlone() {
+        AdaptiveLimit limit = new AdaptiveLimit(4, 1, 16, 2.0);
+        Permit permit = limit.acquire().join();
+        limit.release(permit);
+        assertThat(limit.limit()).isEqualTo(4);
+    }
+
+    @Test
+    void waitersAreGrantedInOrderAsPermitsAreReleased() {
+        AdaptiveLimit limit = new AdaptiveLimit(1, 1, 1, 2.0);
+        Permit held = limit.acquire().join();
+        CompletableFuture<Permit> next = limit.acquire();
+        CompletableFuture<Permit> last = limit.acquire();
+        assertThat(next).isNotDone();
+
+        limit.release(held);
+        assertThat(next).isDone();
+        assertThat(last).isNotDone();
+
+        limit.release(next.join());
+        limit.release(last.join());
+        assertThat(limit.inFlight()).isZero();
+    }
+
+    @Test
+    void releasingTwiceIsIgnored() {
+        AdaptiveLimit limit = new AdaptiveLimit(2, 1, 4, 2.0);
+        Permit permit = limit.acquire().join();
+        limit.release(permit);
+        limit.release(permit);
+        assertThat(limit.inFlight()).isZero();
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.http;
+
+import org.example.http.CircuitBreaker.State;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+
+    private static final long OPEN_NANOS = 50_000_000L;
+
+    @Test
+    void opensAfterConsecutiveFailures() {
+        CircuitBreaker breaker = new CircuitBreaker(3, OPEN_NANOS);
+
+        assertThat(breaker.onFailure()).isFalse();
+        breaker.onSuccess();
+        assertThat(breaker.onFailure()).isFalse();
+        assertThat(breaker.onFailure()).isFalse();
+        assertThat(breaker.state()).isEqualTo(State.CLOSED);
+
+        assertThat(breaker.onFailure()).isTrue();
+        assertThat(breaker.state()).isEqualTo(State.OPEN);
+        assertThat(breaker.tryPass()).isFalse();
+    }
+
+    @Test
+    void letsOneProbeThroughAfterTheOpenPeriod() throws InterruptedException {
+        CircuitBreaker breaker = openBreaker();
+        Thread.sleep(60);
+
+        assertThat(breaker.tryPass()).isTrue();
+        assertThat(breaker.state()).isEqualTo(State.HALF_OPEN);
+        assertThat(breaker.tryPass()).isFalse();
+
+        breaker.onSuccess();
+        assertThat(breaker.state()).isEqualTo(State.CLOSED);
+        assertThat(breaker.tryPass()).isTrue();
+    }
+
+    @Test
+    void failedProbeOpensAgain() throws InterruptedException {
+        CircuitBreaker breaker = openBreaker();
+        Thread.sleep(60);
+        assertThat(breaker.tryPass()).isTrue();
+
+        assertThat(breaker.onFailure()).isTrue();
+        assertThat(breaker.state()).isEqualTo(State.OPEN);
+        assertThat(breaker.tryPass()).isFalse();
+    }
+
+    @Test
+    void neutralProbeHandsTheSlotBack() throws InterruptedException {
+        CircuitBreaker breaker = openBreaker();
+        Thread.sleep(60);
+        assertThat(breaker.tryPass()).isTrue();
+
+        breaker.onNeutral();
+        assertThat(breaker.state()).isEqualTo(State.HALF_OPEN);
+        assertThat(breaker.tryPass()).isTrue();
+        assertThat(breaker.tryPass()).isFalse();
+    }
+
+    private static CircuitBreaker openBreaker() {
+        CircuitBreaker breaker = new CircuitBreaker(2, OPEN_NANOS);
+        breaker.onFailure();
+        breaker.onFailure();
+        assertThat(breaker.state()).isEqualTo(State.OPEN);
+        return breaker;
+    }
+}
@@ -0,0 +1,179 @@
+package org.example.http;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Drives the governor against a local JDK HTTP server that answers from a scripted queue of statuses.
+ */
+class OutboundGovernorTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final Queue<Scripted> script = new ConcurrentLinkedQueue<>();
+    private final List<Long> requestTimes = new CopyOnWriteArrayList<>();
+
+    private HttpServer server;
+    private OutboundGovernor governor;
+    private String url;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            requestTimes.add(System.nanoTime());
+            Scripted next = script.poll();
+            if (next == null) {
+                next = new Scripted(200, null);
+            }
+            if (next.retryAfter() != null) {
+                exchange.getResponseHeaders().set("Retry-After", next.retryAfter());
+            }
+            byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(next.status(), body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+
+        governor = new OutboundGovernor(registry);
+        ReflectionTestUtils.setField(governor, "initialLimit", 4);
+        ReflectionTestUtils.setField(governor, "minLimit", 1);
+        ReflectionTestUtils.setField(governor, "maxLimit", 16);
+        ReflectionTestUtils.setField(governor, "latencyTolerance", 2.0);
+        ReflectionTestUtils.setField(governor, "maxAttempts", 4);
+        ReflectionTestUtils.setField(governor, "baseDelayMs", 10L);
+        ReflectionTestUtils.setField(governor, "maxDelayMs", 50L);
+        ReflectionTestUtils.setField(governor, "maxRetryAfterMs", 5_000L);
+        ReflectionTestUtils.setField(governor, "failureThreshold", 3);
+        ReflectionTestUtils.setField(governor, "openMs", 60_000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void retriesServerErrorsUntilSuccess() throws IOException {
+        script.add(new Scripted(500, null));
+        script.add(new Scripted(502, null));
+
+        String body = governor.execute(host(), this::get);
+
+        assertThat(body).isEqualTo("ok");
+        assertThat(requestTimes).hasSize(3);
+        assertThat(registry.counter("outbound.retries", "host", host(), "reason", "5xx").count()).isEqualTo(1);
+        assertThat(registry.counter("outbound.retries", "host", host(), "reason", "502").count()).isEqualTo(1);
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() {
+        ReflectionTestUtils.setField(governor, "maxAttempts", 2);
+        for (int i = 0; i < 2; i++) {
+            script.add(new Scripted(500, null));
+        }
+
+        assertThatThrownBy(() -> governor.execute(host(), this::get))
+                .isInstanceOf(UpstreamStatusException.class);
+        assertThat(requestTimes).hasSize(2);
+    }
+
+    @Test
+    void clientErrorsAreNotRetried() {
+        script.add(new Scripted(404, null));
+
+        assertThatThrownBy(() -> governor.execute(host(), this::get))
+                .isInstanceOf(UpstreamStatusException.class);
+        assertThat(requestTimes).hasSize(1);
+    }
+
+    @Test
+    void retryAfterPausesTheWholeHost() throws Exception {
+        script.add(new Scripted(429, "1"));
+
+        long start = System.nanoTime();
+        assertThat(governor.execute(host(), this::get)).isEqualTo("ok");
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(950));
+
+        // a request that starts during the pause has to wait it out too
+        script.add(new Scripted(429, "1"));
+        Thread first = Thread.ofVirtual().start(() -> {
+            try {
+                governor.execute(host(), this::get);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        while (requestTimes.size() < 3) {
+            Thread.sleep(5);
+        }
+        long paused = System.nanoTime();
+        assertThat(governor.execute(host(), this::get)).isEqualTo("ok");
+        first.join();
+        assertThat(Duration.ofNanos(System.nanoTime() - paused)).isGreaterThanOrEqualTo(Duration.ofMillis(900));
+    }
+
+    @Test
+    void reactiveExecuteResubscribesForEveryAttempt() {
+        script.add(new Scripted(503, null));
+
+        String body = governor.execute(host(), Mono.fromCallable(this::get)).block(Duration.ofSeconds(5));
+
+        assertThat(body).isEqualTo("ok");
+        assertThat(requestTimes).hasSize(2);
+    }
+
+    @Test
+    void openBreakerFailsFastWithoutCallingTheHost() {
+        ReflectionTestUtils.setField(governor, "maxAttempts", 1);
+        for (int i = 0; i < 3; i++) {
+            script.add(new Scripted(500, null));
+            assertThatThrownBy(() -> governor.execute(host(), this::get)).isInstanceOf(UpstreamStatusException.class);
+        }
+
+        assertThatThrownBy(() -> governor.execute(host(), this::get)).isInstanceOf(CircuitOpenException.class);
+        assertThat(requestTimes).hasSize(3);
+        assertThat(registry.counter("outbound.breaker.opened", "host", host()).count()).isEqualTo(1);
+    }
+
+    private String host() {
+        return OutboundGovernor.hostOf(url);
+    }
+
+    private String get() throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(url)).build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 400) {
+            throw new UpstreamStatusException(url, response.statusCode(), response.headers().firstValue("Retry-After").orElse(null));
+        }
+        return response.body();
+    }
+
+    private record Scripted(int status, String retryAfter) {
+    }
+}
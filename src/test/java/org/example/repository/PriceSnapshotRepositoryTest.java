@@ -0,0 +1,47 @@
+package org.example.repository;
+
+import org.example.entity.PriceSnapshot;
+import org.example.entity.dto.PriceBucketView;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class PriceSnapshotRepositoryTest {
+
+    @Autowired
+    private PriceSnapshotRepository repository;
+
+    @Test
+    void findBucketsMapsEveryColumn() {
+        repository.saveAll(List.of(
+                new PriceSnapshot("90", 1_000, 10.0, 100.0, 5.0, 2),
+                new PriceSnapshot("90", 2_000, 30.0, 300.0, 7.0, 1),
+                new PriceSnapshot("90", 61_000, 20.0, 200.0, 6.0, 3),
+                new PriceSnapshot("91", 1_500, 99.0, 999.0, 9.0, 9)));
+        repository.flush();
+
+        List<PriceBucketView> buckets = repository.findBuckets("90", 0, 120_000, 60_000);
+
+        assertThat(buckets).hasSize(2);
+        PriceBucketView first = buckets.get(0);
+        assertThat(first.getBucketStart()).isEqualTo(0L);
+        assertThat(first.getMinPrice()).isEqualTo(10.0);
+        assertThat(first.getMaxPrice()).isEqualTo(30.0);
+        assertThat(first.getAvgPrice()).isEqualTo(20.0);
+        assertThat(first.getLastPrice()).isEqualTo(30.0);
+        assertThat(first.getLastMarketCapUsd()).isEqualTo(300.0);
+        assertThat(first.getLastVolume24()).isEqualTo(7.0);
+        assertThat(first.getLastRank()).isEqualTo(1);
+        assertThat(first.getSamples()).isEqualTo(2L);
+
+        PriceBucketView second = buckets.get(1);
+        assertThat(second.getBucketStart()).isEqualTo(60_000L);
+        assertThat(second.getLastPrice()).isEqualTo(20.0);
+        assertThat(second.getSamples()).isEqualTo(1L);
+    }
+}
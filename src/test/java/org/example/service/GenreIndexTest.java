@@ -0,0 +1,61 @@
+package org.example.service;
+
+import org.example.entity.Movie;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Genres spelled with different case on different pages must land in one dictionary entry and one posting list,
+ * while the stored and reported spelling stays the one the page used.
+ */
+class GenreIndexTest {
+
+    @Test
+    void scrapedGenresKeepTheirSpelling() {
+        assertThat(GenreIndex.normalize(" Драма,  Наукова   фантастика, драма ,, Sci-Fi, США"))
+                .isEqualTo("Драма, Наукова фантастика, Sci-Fi, США");
+    }
+
+    @Test
+    void mixedCaseSpellingsShareOnePostingList() {
+        Movie[] movies = {movie("Драма, Комедія"), movie("драма"), movie("ДРАМА, комедія")};
+        GenreIndex index = new GenreIndex(movies);
+
+        assertThat(index.size()).isEqualTo(2);
+
+        BitSet drama = index.match(GenreIndex.keys(List.of("дРаМа")), true, 0, movies.length);
+        assertThat(drama.cardinality()).isEqualTo(3);
+
+        BitSet both = index.match(GenreIndex.keys(List.of("драма,КОМЕДІЯ")), true, 0, movies.length);
+        assertThat(both.stream().toArray()).containsExactly(0, 2);
+
+        Map<String, Integer> counts = index.counts(drama, 0, movies.length);
+        assertThat(counts).containsExactly(Map.entry("Драма", 3), Map.entry("Комедія", 2));
+    }
+
+    @Test
+    void acronymsAndMixedCaseGenresAreReportedAsWritten() {
+        Movie[] movies = {movie("США, Sci-Fi"), movie("сша"), movie("SCI-FI, Драма")};
+        GenreIndex index = new GenreIndex(movies);
+
+        assertThat(index.size()).isEqualTo(3);
+
+        BitSet usa = index.match(GenreIndex.keys(List.of("США")), true, 0, movies.length);
+        assertThat(usa.stream().toArray()).containsExactly(0, 1);
+
+        BitSet sciFi = index.match(GenreIndex.keys(List.of("sci-fi")), true, 0, movies.length);
+        assertThat(index.counts(sciFi, 0, movies.length))
+                .containsExactly(Map.entry("Sci-Fi", 2), Map.entry("США", 1), Map.entry("Драма", 1));
+    }
+
+    private static Movie movie(String genres) {
+        Movie movie = new Movie();
+        movie.setGenres(genres);
+        return movie;
+    }
+}
@@ -0,0 +1,92 @@
+package org.example.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.entity.dto.ScrapedMovieDto;
+import org.jsoup.Jsoup;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * The streaming extractor must return the same movies as the DOM extractor, in the same order. Order may
+ * differ only where broken markup nests one item inside another: a streaming parse completes the inner item
+ * first. Runs over the saved listing pages in {@code src/test/resources/listing-pages} (fixtures named
+ * {@code *-broken.html} are compared in any order), plus any {@code .html} or {@code .html.gz} files (e.g.
+ * the scraper's {@code page-cache}) under {@code -Dlisting.corpus=<dir>}, whose markup is not known and
+ * which are also compared in any order.
+ */
+class MovieExtractionEquivalenceTest {
+
+    private MovieScraperService scraper;
+
+    @BeforeEach
+    void setUp() {
+        scraper = new MovieScraperService();
+        ReflectionTestUtils.setField(scraper, "pipelineMetrics", new PipelineMetrics(new SimpleMeterRegistry()));
+    }
+
+    @Test
+    void streamAndDomAgreeOnSavedPages() throws IOException {
+        Resource[] pages = new PathMatchingResourcePatternResolver().getResources("classpath:listing-pages/*.html");
+        assertThat(pages).hasSizeGreaterThanOrEqualTo(3);
+
+        for (Resource page : pages) {
+            String name = page.getFilename();
+            assertEquivalent(name, page.getContentAsString(StandardCharsets.UTF_8), !name.endsWith("-broken.html"));
+        }
+    }
+
+    @Test
+    void streamAndDomAgreeOnExternalCorpus() throws IOException {
+        String corpus = System.getProperty("listing.corpus");
+        assumeTrue(corpus != null, "-Dlisting.corpus=<dir> not set");
+        try (Stream<Path> files = Files.list(Path.of(corpus))) {
+            for (Path file : files.sorted().toList()) {
+                if (file.toString().endsWith(".html")) {
+                    assertEquivalent(file.toString(), Files.readString(file), false);
+                } else if (file.toString().endsWith(".html.gz")) {
+                    try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+                        assertEquivalent(file.toString(), new String(in.readAllBytes(), StandardCharsets.UTF_8), false);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void savedPageYieldsExpectedMovies() throws IOException {
+        String page = new PathMatchingResourcePatternResolver().getResource("classpath:listing-pages/page-1.html")
+                .getContentAsString(StandardCharsets.UTF_8);
+
+        List<ScrapedMovieDto> movies = scraper.streamPage(page, "", 1);
+
+        assertThat(movies).hasSize(8).containsExactlyElementsOf(scraper.parsePage(Jsoup.parse(page), 1));
+        assertThat(movies.get(0)).isEqualTo(new ScrapedMovieDto("Втеча з Шоушенка", 1994, GenreIndex.normalize("Драма, Кримінал")));
+        assertThat(movies).extracting(ScrapedMovieDto::title)
+                .contains("Tom & Jerry: фільм", "\"Список Шиндлера\"", "1+1");
+    }
+
+    private void assertEquivalent(String name, String html, boolean wellFormed) {
+        List<ScrapedMovieDto> dom = scraper.parsePage(Jsoup.parse(html), 1);
+        List<ScrapedMovieDto> streamed = scraper.streamPage(html, "", 1);
+        if (wellFormed) {
+            assertThat(streamed).as("stream vs DOM extraction for %s", name).containsExactlyElementsOf(dom);
+        } else {
+            assertThat(streamed).as("stream vs DOM extraction for %s", name).containsExactlyInAnyOrderElementsOf(dom);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package org.example.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.example.repository.MovieRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the scraper against a local listing stub whose earlier pages answer slowest, so concurrent
+ * fetches complete out of order; both modes must still save and return the same movies in page order.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:scraper-concurrency;DB_CLOSE_DELAY=-1",
+        "scraper.movies.total-pages=" + MovieScraperConcurrencyTest.PAGES,
+        "scraper.movies.concurrency=3",
+        "scraper.movies.cache.enabled=false",
+        "scraper.movies.incremental=false"
+})
+class MovieScraperConcurrencyTest {
+
+    static final int PAGES = 6;
+    private static final int MOVIES_PER_PAGE = 5;
+    private static final String[] GENRES = {"Драма", "Комедія", "Трилер", "Фантастика"};
+    private static final Pattern PAGE = Pattern.compile("/page/(\\d+)/");
+
+    private static final AtomicInteger IN_FLIGHT = new AtomicInteger();
+    private static final AtomicInteger PEAK = new AtomicInteger();
+    private static final HttpServer STUB = startStub();
+
+    @Autowired
+    private MovieScraperService scraper;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @DynamicPropertySource
+    static void listing(DynamicPropertyRegistry registry) {
+        registry.add("scraper.movies.base-url", () -> "http://127.0.0.1:" + STUB.getAddress().getPort() + "/f/movies");
+    }
+
+    @AfterAll
+    static void stopStub() {
+        STUB.stop(0);
+    }
+
+    @BeforeEach
+    void emptyTable() {
+        movieRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void concurrentAndSequentialModesReturnTheSameOrderedMovies() {
+        List<String> sequential = scrape(false);
+        int sequentialPeak = PEAK.get();
+
+        movieRepository.deleteAllInBatch();
+        List<String> concurrent = scrape(true);
+        int concurrentPeak = PEAK.get();
+
+        assertThat(sequential).hasSize(PAGES * MOVIES_PER_PAGE).doesNotHaveDuplicates();
+        assertThat(sequential.get(0)).isEqualTo("Фільм 1-1 (1950) Драма");
+        assertThat(concurrent).containsExactlyElementsOf(sequential);
+        assertThat(sequentialPeak).isEqualTo(1);
+        assertThat(concurrentPeak).isBetween(2, 3);
+
+        assertThat(scrape(true)).containsExactlyElementsOf(sequential);
+        assertThat(movieRepository.count()).isEqualTo(PAGES * MOVIES_PER_PAGE);
+    }
+
+    private List<String> scrape(boolean concurrent) {
+        MovieScraperService target = AopTestUtils.getTargetObject(scraper);
+        ReflectionTestUtils.setField(target, "concurrent", concurrent);
+        PEAK.set(0);
+        return scraper.scrapeAndSaveMovies().stream()
+                .map(movie -> movie.getTitle() + " (" + movie.getReleaseYear() + ") " + movie.getGenres())
+                .toList();
+    }
+
+    private static HttpServer startStub() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            server.createContext("/f/movies", MovieScraperConcurrencyTest::servePage);
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void servePage(HttpExchange exchange) throws IOException {
+        int active = IN_FLIGHT.incrementAndGet();
+        PEAK.accumulateAndGet(active, Math::max);
+        try {
+            Matcher matcher = PAGE.matcher(exchange.getRequestURI().getPath());
+            int page = matcher.find() ? Integer.parseInt(matcher.group(1)) : 1;
+            Thread.sleep(20L * (PAGES - page + 1));
+            byte[] body = pageHtml(page).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            exchange.sendResponseHeaders(503, -1);
+        } finally {
+            IN_FLIGHT.decrementAndGet();
+            exchange.close();
+        }
+    }
+
+    private static String pageHtml(int page) {
+        StringBuilder html = new StringBuilder("<html><head><title>Фільми</title></head><body><div class=\"list\">");
+        for (int i = 1; i <= MOVIES_PER_PAGE; i++) {
+            int n = (page - 1) * MOVIES_PER_PAGE + i - 1;
+            html.append("<div class=\"postItem\"><div class=\"postitem-title\"><a href=\"/m/").append(n).append("\">Фільм ")
+                    .append(page).append('-').append(i).append("</a></div><div class=\"postItem-title\"><span class=\"misc\">")
+                    .append(1950 + n).append(", ").append(GENRES[n % GENRES.length]).append("</span></div></div>");
+        }
+        return html.append("</div></body></html>").toString();
+    }
+}
@@ -0,0 +1,169 @@
+package org.example.service;
+
+import com.sun.net.httpserver.HttpServer;
+import org.example.event.TickersChangedEvent;
+import org.example.repository.CryptocurrencyRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.event.TransactionalEventListener;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Overlapping full ingests and single-page fetches against a local CoinLore stub: every ingest inserts
+ * the same new ids at the same time, chunk writes must overlap rather than queue behind one lock, and
+ * neither the JDBC work nor the after-commit listeners may run on a Reactor Netty event-loop thread.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:ticker-concurrency;DB_CLOSE_DELAY=-1",
+        "coinlore.polling.enabled=false",
+        "coinlore.api.page-size=100",
+        "coinlore.api.max-coins=1000",
+        "coinlore.api.page-concurrency=4",
+        "coinlore.persistence.threads=8"
+})
+class TickerIngestionConcurrencyTest {
+
+    private static final int COINS = 500;
+    private static final AtomicLong REQUESTS = new AtomicLong();
+    private static final HttpServer STUB = startStub();
+
+    @Autowired
+    private CoinLoreApiService coinLoreApiService;
+
+    @Autowired
+    private CryptocurrencyRepository repository;
+
+    @Autowired
+    private ThreadRecorder recorder;
+
+    @SpyBean
+    private TickerPersistenceService tickerPersistenceService;
+
+    @DynamicPropertySource
+    static void coinLore(DynamicPropertyRegistry registry) {
+        registry.add("coinlore.api.baseurl", () -> "http://127.0.0.1:" + STUB.getAddress().getPort() + "/api");
+    }
+
+    @AfterAll
+    static void stopStub() {
+        STUB.stop(0);
+    }
+
+    @Test
+    void overlappingIngestsWriteInParallelOffTheEventLoop() {
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        doAnswer(invocation -> {
+            recorder.saveThreads.add(Thread.currentThread().getName());
+            peak.accumulateAndGet(active.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+                return invocation.callRealMethod();
+            } finally {
+                active.decrementAndGet();
+            }
+        }).when(tickerPersistenceService).saveChunk(any(), any(Instant.class));
+
+        List<Mono<?>> runs = List.of(
+                coinLoreApiService.ingestAllTickers(),
+                coinLoreApiService.ingestAllTickers(),
+                coinLoreApiService.ingestAllTickers(),
+                coinLoreApiService.fetchAndSaveTickers(),
+                coinLoreApiService.ingestAllTickers(),
+                coinLoreApiService.pollChangedTickers());
+        Flux.fromIterable(runs)
+                .flatMap(run -> run, runs.size())
+                .then()
+                .block(Duration.ofSeconds(60));
+
+        assertThat(repository.count()).isEqualTo(COINS);
+        assertThat(recorder.saveThreads).isNotEmpty().allSatisfy(name -> assertThat(name).startsWith("crypto-db"));
+        assertThat(recorder.listenerThreads).isNotEmpty().noneMatch(name -> name.startsWith("reactor-http"));
+        assertThat(peak.get()).as("chunk writes running at the same time").isGreaterThan(1);
+    }
+
+    private static HttpServer startStub() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            server.createContext("/api/tickers/", exchange -> {
+                Map<String, String> query = new ConcurrentHashMap<>();
+                for (String pair : exchange.getRequestURI().getQuery().split("&")) {
+                    String[] kv = pair.split("=", 2);
+                    query.put(kv[0], kv[1]);
+                }
+                int start = Integer.parseInt(query.get("start"));
+                int limit = Integer.parseInt(query.get("limit"));
+                long request = REQUESTS.incrementAndGet();
+                StringBuilder json = new StringBuilder("{\"data\":[");
+                for (int i = start; i < Math.min(COINS, start + limit); i++) {
+                    if (i > start) {
+                        json.append(',');
+                    }
+                    // the price moves with every request so later writes are real updates
+                    json.append("{\"id\":\"").append(i + 1).append("\",\"symbol\":\"C").append(i)
+                            .append("\",\"name\":\"Coin ").append(i).append("\",\"nameid\":\"coin-").append(i)
+                            .append("\",\"rank\":").append(i + 1)
+                            .append(",\"price_usd\":\"").append(1000 + request).append(".5\"")
+                            .append(",\"percent_change_24h\":\"1.5\",\"percent_change_1h\":\"0.1\",\"percent_change_7d\":\"-2\"")
+                            .append(",\"market_cap_usd\":\"1000000.00\",\"volume24\":12345.5,\"volume24a\":2345.25")
+                            .append(",\"csupply\":\"1000.00\",\"tsupply\":\"2000\",\"msupply\":\"\"}");
+                }
+                json.append("],\"info\":{\"coins_num\":").append(COINS).append("}}");
+                byte[] body = json.toString().getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        ThreadRecorder threadRecorder() {
+            return new ThreadRecorder();
+        }
+    }
+
+    static class ThreadRecorder {
+        final Set<String> saveThreads = ConcurrentHashMap.newKeySet();
+        final Set<String> listenerThreads = ConcurrentHashMap.newKeySet();
+
+        @TransactionalEventListener(fallbackExecution = true)
+        public void onTickersChanged(TickersChangedEvent event) {
+            listenerThreads.add(Thread.currentThread().getName());
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package org.example.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.controller.CryptoController;
+import org.example.entity.Cryptocurrency;
+import org.example.event.TickersChangedEvent;
+import org.example.repository.CryptocurrencyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The ticker snapshot is loaded from the database once and then patched from {@link TickersChangedEvent}s;
+ * {@code /api/crypto/latest} serves it with an ETag tied to the snapshot version.
+ */
+class TickerSnapshotTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private CryptocurrencyRepository repository;
+    private TickerSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(CryptocurrencyRepository.class);
+        when(repository.findAll()).thenReturn(new ArrayList<>(List.of(
+                ticker("90", "BTC", "Bitcoin", 1, "64000.1200"),
+                ticker("80", "ETH", "Ethereum", 2, "3100.5000"),
+                ticker("7", "DOGE", "Dogecoin", null, "0.1250"),
+                ticker("2", "USDT", "Tether", 3, "1.0000"))));
+        snapshot = new TickerSnapshot();
+        ReflectionTestUtils.setField(snapshot, "cryptocurrencyRepository", repository);
+    }
+
+    @Test
+    void servesTickersInRankOrderFromColumns() throws IOException {
+        JsonNode all = json(snapshot.latest(Integer.MAX_VALUE).json());
+
+        assertThat(all).hasSize(4);
+        assertThat(all.findValuesAsText("symbol")).containsExactly("BTC", "ETH", "USDT", "DOGE");
+        assertThat(all.get(0).get("price_usd").decimalValue()).isEqualByComparingTo("64000.12");
+        assertThat(all.get(0).get("rank").asInt()).isEqualTo(1);
+        assertThat(all.get(3).get("rank").isNull()).isTrue();
+        assertThat(all.get(3).get("market_cap_usd").isNull()).isTrue();
+        assertThat(snapshot.size()).isEqualTo(4);
+    }
+
+    @Test
+    void limitCutsTheSharedArray() throws IOException {
+        assertThat(json(snapshot.latest(2).json()).findValuesAsText("symbol")).containsExactly("BTC", "ETH");
+        assertThat(json(snapshot.latest(0).json())).isEmpty();
+        assertThat(snapshot.latest(10).json()).isSameAs(snapshot.latest(4).json());
+    }
+
+    @Test
+    void symbolLookupIsCaseInsensitive() throws IOException {
+        assertThat(json(snapshot.latest("eth").json()).get("name").asText()).isEqualTo("Ethereum");
+        assertThat(snapshot.latest("XRP")).isNull();
+    }
+
+    @Test
+    void changesApplyOnNextReadWithOneVersionPerBurst() throws IOException {
+        long before = snapshot.getVersion();
+        byte[] btcBefore = snapshot.latest("BTC").json();
+        byte[] usdtBefore = snapshot.latest("USDT").json();
+
+        snapshot.onTickersChanged(new TickersChangedEvent(List.of(ticker("80", "ETH", "Ethereum", 1, "3200"))));
+        snapshot.onTickersChanged(new TickersChangedEvent(List.of(
+                ticker("90", "BTC", "Bitcoin", 2, "64000.12"),
+                ticker("5", "XRP", "XRP", 4, "0.5"))));
+
+        assertThat(snapshot.getVersion()).isEqualTo(before + 1);
+        assertThat(json(snapshot.latest(Integer.MAX_VALUE).json()).findValuesAsText("symbol"))
+                .containsExactly("ETH", "BTC", "USDT", "XRP", "DOGE");
+        assertThat(json(snapshot.latest("ETH").json()).get("price_usd").asText()).isEqualTo("3200");
+        assertThat(snapshot.latest("USDT").json()).isSameAs(usdtBefore);
+        assertThat(snapshot.latest("BTC").json()).isNotSameAs(btcBefore);
+        verify(repository, times(1)).findAll();
+    }
+
+    @Test
+    void latestEndpointAnswersNotModifiedUntilTheSnapshotChanges() throws Exception {
+        CryptoController controller = new CryptoController();
+        ReflectionTestUtils.setField(controller, "tickerSnapshot", snapshot);
+        ReflectionTestUtils.setField(controller, "dataVersionService", new DataVersionService());
+        MockMvc mvc = MockMvcBuilders.standaloneSetup(controller).build();
+
+        String etag = mvc.perform(get("/api/crypto/latest").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andExpect(content().json("[{\"symbol\":\"BTC\"},{\"symbol\":\"ETH\"}]"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotNull();
+
+        mvc.perform(get("/api/crypto/latest").param("limit", "2").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        mvc.perform(get("/api/crypto/latest/btc").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        mvc.perform(get("/api/crypto/latest/xrp"))
+                .andExpect(status().isNotFound());
+
+        snapshot.onTickersChanged(new TickersChangedEvent(List.of(ticker("90", "BTC", "Bitcoin", 1, "65000"))));
+
+        mvc.perform(get("/api/crypto/latest").param("limit", "2").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)));
+    }
+
+    private static JsonNode json(byte[] bytes) throws IOException {
+        return MAPPER.readTree(bytes);
+    }
+
+    private static Cryptocurrency ticker(String id, String symbol, String name, Integer rank, String price) {
+        Cryptocurrency c = new Cryptocurrency();
+        c.setId(id);
+        c.setSymbol(symbol);
+        c.setName(name);
+        c.setNameid(name.toLowerCase());
+        c.setRank(rank);
+        c.setPrice_usd(new BigDecimal(price));
+        c.setPercent_change_24h(1.5);
+        return c;
+    }
+}
@@ -0,0 +1,113 @@
+package org.example.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.entity.Cryptocurrency;
+import org.example.event.TickersChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.Disposable;
+import reactor.core.publisher.BaseSubscriber;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TickerStreamServiceTest {
+
+    private static final int BUFFER_SIZE = 4;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private TickerStreamService service;
+
+    @BeforeEach
+    void setUp() {
+        TickerSnapshot snapshot = mock(TickerSnapshot.class);
+        when(snapshot.latest(2)).thenReturn(new TickerSnapshot.Latest(1, "[{\"id\":\"90\"},{\"id\":\"80\"}]".getBytes(StandardCharsets.UTF_8)));
+        service = new TickerStreamService(mock(CoinLoreApiService.class), snapshot, new ObjectMapper(), registry,
+                true, 60_000, BUFFER_SIZE, 60_000, 60_000, 3_000);
+    }
+
+    @Test
+    void sendsSnapshotThenDeltasWithinTheRankWindow() throws InterruptedException {
+        List<ServerSentEvent<String>> events = new CopyOnWriteArrayList<>();
+        CountDownLatch snapshotSent = new CountDownLatch(1);
+        Disposable subscription = service.stream(2).subscribe(event -> {
+            events.add(event);
+            snapshotSent.countDown();
+        });
+        assertThat(snapshotSent.await(5, TimeUnit.SECONDS)).isTrue();
+
+        service.onTickersChanged(new TickersChangedEvent(List.of(ticker("90", 1), ticker("80", 2))));
+        service.onTickersChanged(new TickersChangedEvent(List.of(ticker("7", 150), ticker("80", 2))));
+        service.onTickersChanged(new TickersChangedEvent(List.of(ticker("7", 150), ticker("5", null))));
+        subscription.dispose();
+
+        assertThat(events).extracting(ServerSentEvent::event).containsExactly("snapshot", "tickers", "tickers");
+        assertThat(events.get(0).data()).isEqualTo("[{\"id\":\"90\"},{\"id\":\"80\"}]");
+        assertThat(events.get(1).data()).contains("\"id\":\"90\"", "\"id\":\"80\"");
+        assertThat(events.get(2).data()).contains("\"id\":\"80\"").doesNotContain("\"id\":\"7\"");
+        assertThat(Long.parseLong(events.get(2).id())).isGreaterThan(Long.parseLong(events.get(1).id()));
+        assertThat(service.getSubscriberCount()).isZero();
+    }
+
+    @Test
+    void disconnectsASubscriberThatFallsBehind() throws InterruptedException {
+        CountDownLatch snapshotSent = new CountDownLatch(1);
+        CountDownLatch completed = new CountDownLatch(1);
+        BaseSubscriber<ServerSentEvent<String>> slow = new BaseSubscriber<>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                request(1);
+            }
+
+            @Override
+            protected void hookOnNext(ServerSentEvent<String> event) {
+                snapshotSent.countDown();
+            }
+
+            @Override
+            protected void hookOnComplete() {
+                completed.countDown();
+            }
+        };
+        service.stream(2).subscribe(slow);
+        assertThat(snapshotSent.await(5, TimeUnit.SECONDS)).isTrue();
+
+        for (int i = 0; i < 500 && completed.getCount() > 0; i++) {
+            service.onTickersChanged(new TickersChangedEvent(List.of(ticker("90", 1))));
+        }
+
+        assertThat(completed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(registry.counter("crypto.stream.slow.disconnects").count()).isEqualTo(1.0);
+        assertThat(service.getSubscriberCount()).isZero();
+    }
+
+    @Test
+    void publishesNothingWithoutSubscribers() {
+        service.onTickersChanged(new TickersChangedEvent(List.of(ticker("90", 1))));
+
+        assertThat(service.stream(2).take(Duration.ofMillis(200)).collectList().block())
+                .extracting(ServerSentEvent::event)
+                .containsExactly("snapshot");
+    }
+
+    private static Cryptocurrency ticker(String id, Integer rank) {
+        Cryptocurrency c = new Cryptocurrency();
+        c.setId(id);
+        c.setSymbol("C" + id);
+        c.setRank(rank);
+        c.setPrice_usd(new BigDecimal("1.25"));
+        return c;
+    }
+}
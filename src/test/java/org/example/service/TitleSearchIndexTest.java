@@ -0,0 +1,132 @@
+package org.example.service;
+
+import org.example.entity.Movie;
+import org.example.entity.dto.MovieSuggestionDto;
+import org.example.event.MoviesChangedEvent;
+import org.example.repository.MovieRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TitleSearchIndexTest {
+
+    private final List<Movie> stored = new ArrayList<>(List.of(
+            movie(1, "Втеча з Шоушенка", 1994),
+            movie(2, "Зелена миля", 1999),
+            movie(3, "Інтерстеллар", 2014),
+            movie(4, "The Green Mile", 1999),
+            movie(5, "Interstellar", 2014),
+            movie(6, "Forrest Gump", 1994),
+            movie(7, "Форрест Гамп", 1994)));
+
+    private MovieRepository repository;
+    private TitleSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(MovieRepository.class);
+        when(repository.findAll()).thenAnswer(invocation -> new ArrayList<>(stored));
+        index = new TitleSearchIndex();
+        ReflectionTestUtils.setField(index, "movieRepository", repository);
+    }
+
+    @Test
+    void findsCyrillicAndLatinTitles() {
+        assertThat(top(index.suggest("зелена миля", 5))).isEqualTo("Зелена миля");
+        assertThat(top(index.suggest("green mile", 5))).isEqualTo("The Green Mile");
+        assertThat(top(index.suggest("ШОУШЕНК", 5))).isEqualTo("Втеча з Шоушенка");
+        assertThat(index.size()).isEqualTo(7);
+    }
+
+    @Test
+    void toleratesMisspellings() {
+        assertThat(top(index.suggest("intersteller", 5))).isEqualTo("Interstellar");
+        assertThat(top(index.suggest("інтерстелар", 5))).isEqualTo("Інтерстеллар");
+        assertThat(top(index.suggest("forest gump", 5))).isEqualTo("Forrest Gump");
+    }
+
+    @Test
+    void matchesTwoLetterPrefixes() {
+        assertThat(titles(index.suggest("фо", 5))).containsExactly("Форрест Гамп");
+        assertThat(titles(index.suggest("in", 5))).containsExactly("Interstellar");
+        assertThat(titles(index.suggest("зе", 5))).contains("Зелена миля");
+    }
+
+    @Test
+    void appliesChangesIncrementally() {
+        assertThat(index.suggest("матриця", 5)).isEmpty();
+
+        Movie renamed = movie(6, "Forrest Gump Returns", 1994);
+        index.onMoviesChanged(new MoviesChangedEvent(List.of(movie(8, "Матриця", 1999), renamed)));
+
+        assertThat(top(index.suggest("матриця", 5))).isEqualTo("Матриця");
+        assertThat(titles(index.suggest("forrest gump", 5))).containsExactly("Forrest Gump Returns");
+        assertThat(index.size()).isEqualTo(8);
+    }
+
+    @Test
+    void compactsRetiredSlots() {
+        stored.clear();
+        for (long id = 1; id <= 600; id++) {
+            stored.add(movie(id, "Фільм " + id, 2000));
+        }
+        assertThat(index.suggest("фільм 1", 1)).hasSize(1);
+
+        for (String suffix : List.of("a", "b")) {
+            List<Movie> renamed = new ArrayList<>();
+            for (long id = 1; id <= 600; id++) {
+                renamed.add(movie(id, "Фільм " + id + suffix, 2000));
+            }
+            index.onMoviesChanged(new MoviesChangedEvent(renamed));
+        }
+
+        assertThat((int) ReflectionTestUtils.getField(index, "slotCount")).isEqualTo(600);
+        assertThat(titles(index.suggest("фільм 42b", 1))).containsExactly("Фільм 42b");
+        assertThat(index.size()).isEqualTo(600);
+    }
+
+    @Test
+    void changeCommittedDuringInitialLoadIsNotLost() throws InterruptedException {
+        ReentrantReadWriteLock lock = (ReentrantReadWriteLock) ReflectionTestUtils.getField(index, "lock");
+        Movie added = movie(9, "Дюна", 2021);
+        Thread[] listener = new Thread[1];
+        when(repository.findAll()).thenAnswer(invocation -> {
+            // The load has already read its rows when the change commits and its listener fires.
+            List<Movie> snapshot = new ArrayList<>(stored);
+            listener[0] = new Thread(() -> index.onMoviesChanged(new MoviesChangedEvent(List.of(added))));
+            listener[0].start();
+            while (listener[0].isAlive() && !lock.hasQueuedThread(listener[0])) {
+                Thread.onSpinWait();
+            }
+            return snapshot;
+        });
+
+        index.suggest("дюна", 5);
+        listener[0].join();
+
+        assertThat(top(index.suggest("дюна", 5))).isEqualTo("Дюна");
+    }
+
+    private static String top(List<MovieSuggestionDto> suggestions) {
+        assertThat(suggestions).isNotEmpty();
+        return suggestions.get(0).title();
+    }
+
+    private static List<String> titles(List<MovieSuggestionDto> suggestions) {
+        return suggestions.stream().map(MovieSuggestionDto::title).toList();
+    }
+
+    private static Movie movie(long id, String title, int year) {
+        Movie movie = new Movie(title, year, "Драма");
+        movie.setId(id);
+        return movie;
+    }
+}